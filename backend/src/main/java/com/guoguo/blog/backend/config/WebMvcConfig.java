@@ -0,0 +1,18 @@
+package com.guoguo.blog.backend.config;
+
+import com.guoguo.blog.backend.web.HttpCachingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+  private final HttpCachingInterceptor httpCachingInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(httpCachingInterceptor).addPathPatterns("/api/**");
+  }
+}
@@ -1,19 +1,26 @@
 package com.guoguo.blog.backend.controller;
 
+import com.guoguo.blog.backend.dto.ArticleInteractionResponse;
 import com.guoguo.blog.backend.dto.ArticleListItem;
 import com.guoguo.blog.backend.dto.ArticleRequest;
 import com.guoguo.blog.backend.dto.ArticleResponse;
 import com.guoguo.blog.backend.dto.ArticleViewRequest;
 import com.guoguo.blog.backend.dto.PageResponse;
 import com.guoguo.blog.backend.security.CustomUserDetails;
+import com.guoguo.blog.backend.service.ArticleBodyFormat;
 import com.guoguo.blog.backend.service.ArticleService;
 import com.guoguo.blog.backend.web.ApiResponse;
+import com.guoguo.blog.backend.web.HttpCaching;
+import com.guoguo.blog.backend.web.FieldSelector;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -27,6 +34,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * 文章模块接口
@@ -44,38 +53,45 @@ public class ArticleController {
   /**
    * 创建文章
    *
-   * <p>创建文章默认为草稿，支持直接发布。</p>
+   * <p>创建文章默认为草稿，支持直接发布。可通过 fields 指定只返回部分字段（如 fields=id,slug）。</p>
    *
    * @param user 当前登录用户
    * @param request 文章请求
+   * @param fields 返回字段（逗号分隔，可为空，为空返回全部字段）
    * @return 创建结果
    */
   @SecurityRequirement(name = "BearerAuth")
-  @Operation(summary = "创建文章", description = "创建文章（草稿/发布），返回文章详情")
+  @Operation(summary = "创建文章", description = "创建文章（草稿/发布），返回文章详情；指定 fields 时只返回 id 与所选字段")
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ApiResponse<ArticleResponse>> create(
-      @AuthenticationPrincipal CustomUserDetails user, @Valid @RequestBody ArticleRequest request) {
-    return ResponseEntity.ok(ApiResponse.success(articleService.createArticle(user.getId(), request)));
+  public ResponseEntity<ApiResponse<Object>> create(
+      @AuthenticationPrincipal CustomUserDetails user,
+      @Valid @RequestBody ArticleRequest request,
+      @RequestParam(name = "fields", required = false) String fields) {
+    ArticleResponse response = articleService.createArticle(user.getId(), request);
+    return ResponseEntity.ok(ApiResponse.success(FieldSelector.retain(response, fields)));
   }
 
   /**
    * 更新文章
    *
-   * <p>仅作者可更新自己的文章。</p>
+   * <p>仅作者可更新自己的文章。可通过 fields 指定只返回部分字段（如 fields=id,updatedAt）。</p>
    *
    * @param user 当前登录用户
    * @param id 文章ID
    * @param request 文章请求
+   * @param fields 返回字段（逗号分隔，可为空，为空返回全部字段）
    * @return 更新结果
    */
   @SecurityRequirement(name = "BearerAuth")
-  @Operation(summary = "更新文章", description = "更新文章内容与状态，返回文章详情")
+  @Operation(summary = "更新文章", description = "更新文章内容与状态，返回文章详情；指定 fields 时只返回 id 与所选字段")
   @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ApiResponse<ArticleResponse>> update(
+  public ResponseEntity<ApiResponse<Object>> update(
       @AuthenticationPrincipal CustomUserDetails user,
       @PathVariable("id") Long id,
-      @Valid @RequestBody ArticleRequest request) {
-    return ResponseEntity.ok(ApiResponse.success(articleService.updateArticle(user.getId(), id, request)));
+      @Valid @RequestBody ArticleRequest request,
+      @RequestParam(name = "fields", required = false) String fields) {
+    ArticleResponse response = articleService.updateArticle(user.getId(), id, request);
+    return ResponseEntity.ok(ApiResponse.success(FieldSelector.retain(response, fields)));
   }
 
   /**
@@ -98,18 +114,59 @@ public class ArticleController {
   /**
    * 获取文章详情
    *
-   * <p>公开文章可匿名访问；非公开文章仅作者可访问。</p>
+   * <p>公开文章可匿名访问；非公开文章仅作者可访问。默认不返回正文，阅读页通过正文接口获取，编辑页传 includeBody=true。</p>
    *
    * @param user 当前登录用户（可为空）
    * @param id 文章ID
+   * @param includeBody 是否返回正文（content 与 htmlContent）
    * @return 文章详情
    */
   @Operation(summary = "获取文章详情")
+  @HttpCaching(etag = HttpCaching.Source.ARTICLE, viewerSpecific = true)
   @GetMapping("/{id}")
   public ResponseEntity<ApiResponse<ArticleResponse>> detail(
-      @AuthenticationPrincipal CustomUserDetails user, @PathVariable("id") Long id) {
+      @AuthenticationPrincipal CustomUserDetails user,
+      @PathVariable("id") Long id,
+      @RequestParam(name = "includeBody", defaultValue = "false") boolean includeBody) {
+    Long viewerId = user == null ? null : user.getId();
+    return ResponseEntity.ok(ApiResponse.success(articleService.getArticleDetail(viewerId, id, includeBody)));
+  }
+
+  /**
+   * 获取文章正文
+   *
+   * <p>直接从结果集输出正文（HTML 或 Markdown 原文），不包装为 JSON，在异步线程中写出。响应带 ETag，请求头 If-None-Match 匹配时返回 304。
+   * 访问权限与文章详情一致。</p>
+   *
+   * @param user 当前登录用户（可为空）
+   * @param id 文章ID
+   * @param format 正文格式：html（默认）, markdown
+   * @param webRequest 当前请求
+   * @param response 当前响应，正文写出前据所读行更正 ETag
+   * @return 正文
+   */
+  @Operation(summary = "获取文章正文", description = "直接返回 text/html 或 text/markdown 正文")
+  @GetMapping(value = "/{id}/body", produces = MediaType.ALL_VALUE)
+  public ResponseEntity<StreamingResponseBody> body(
+      @AuthenticationPrincipal CustomUserDetails user,
+      @PathVariable("id") Long id,
+      @RequestParam(name = "format", defaultValue = "html") String format,
+      WebRequest webRequest,
+      HttpServletResponse response) {
     Long viewerId = user == null ? null : user.getId();
-    return ResponseEntity.ok(ApiResponse.success(articleService.getArticleDetail(viewerId, id)));
+    ArticleBodyFormat bodyFormat = ArticleBodyFormat.parse(format);
+    String etag = articleService.getArticleBodyETag(viewerId, id, bodyFormat);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache())
+        .contentType(bodyFormat.getMediaType())
+        .body(
+            out ->
+                articleService.writeArticleBody(
+                    id, bodyFormat, out, rowEtag -> response.setHeader(HttpHeaders.ETAG, rowEtag)));
   }
 
   /**
@@ -126,10 +183,12 @@ public class ArticleController {
    * @param categoryId 分类ID
    * @param tagId 标签ID
    * @param userId 作者ID
-   * @param keyword 关键词
+   * @param keyword 关键词（非空时按相关度排序，忽略 sortBy/order）
+   * @param cursor 游标；传入（首屏传空字符串）即启用游标分页，此时忽略 page 且不返回总数
    * @return 文章分页列表
    */
   @Operation(summary = "获取文章列表")
+  @HttpCaching(maxAge = 30, etag = HttpCaching.Source.ARTICLES)
   @GetMapping
   public ResponseEntity<ApiResponse<PageResponse<ArticleListItem>>> list(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -141,8 +200,15 @@ public class ArticleController {
       @RequestParam(name = "categoryId", required = false) Long categoryId,
       @RequestParam(name = "tagId", required = false) Long tagId,
       @RequestParam(name = "userId", required = false) Long userId,
-      @RequestParam(name = "keyword", required = false) String keyword) {
+      @RequestParam(name = "keyword", required = false) String keyword,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     Long viewerId = user == null ? null : user.getId();
+    if (cursor != null) {
+      return ResponseEntity.ok(
+          ApiResponse.success(
+              articleService.listArticlesByCursor(
+                  viewerId, cursor, size, sortBy, order, status, categoryId, tagId, userId, keyword)));
+    }
     return ResponseEntity.ok(
         ApiResponse.success(
             articleService.listArticles(viewerId, page, size, sortBy, order, status, categoryId, tagId, userId, keyword)));
@@ -160,6 +226,7 @@ public class ArticleController {
    */
   @SecurityRequirement(name = "BearerAuth")
   @Operation(summary = "获取草稿列表", description = "返回当前用户草稿分页列表")
+  @HttpCaching(scope = HttpCaching.Scope.PRIVATE, etag = HttpCaching.Source.ARTICLES)
   @GetMapping("/drafts")
   public ResponseEntity<ApiResponse<PageResponse<ArticleListItem>>> drafts(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -178,6 +245,7 @@ public class ArticleController {
    * @return 搜索结果
    */
   @Operation(summary = "搜索文章")
+  @HttpCaching(maxAge = 30, etag = HttpCaching.Source.ARTICLES)
   @GetMapping("/search")
   public ResponseEntity<ApiResponse<PageResponse<ArticleListItem>>> search(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -195,6 +263,7 @@ public class ArticleController {
    * @return 热门文章列表
    */
   @Operation(summary = "热门文章")
+  @HttpCaching(maxAge = 60)
   @GetMapping("/trending")
   public ResponseEntity<ApiResponse<List<ArticleListItem>>> trending(@RequestParam(name = "limit", defaultValue = "10") int limit) {
     return ResponseEntity.ok(ApiResponse.success(articleService.trending(limit)));
@@ -209,6 +278,7 @@ public class ArticleController {
    * @return 相关文章列表
    */
   @Operation(summary = "相关文章")
+  @HttpCaching(maxAge = 300, etag = HttpCaching.Source.ARTICLES)
   @GetMapping("/{id}/related")
   public ResponseEntity<ApiResponse<List<ArticleListItem>>> related(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -223,12 +293,12 @@ public class ArticleController {
    *
    * @param user 当前登录用户
    * @param id 文章ID
-   * @return 文章详情（包含 liked 状态）
+   * @return 点赞/收藏状态与计数
    */
   @SecurityRequirement(name = "BearerAuth")
   @Operation(summary = "点赞/取消点赞")
   @PostMapping("/{id}/like")
-  public ResponseEntity<ApiResponse<ArticleResponse>> like(@AuthenticationPrincipal CustomUserDetails user, @PathVariable("id") Long id) {
+  public ResponseEntity<ApiResponse<ArticleInteractionResponse>> like(@AuthenticationPrincipal CustomUserDetails user, @PathVariable("id") Long id) {
     return ResponseEntity.ok(ApiResponse.success(articleService.toggleLike(user.getId(), id)));
   }
 
@@ -237,12 +307,12 @@ public class ArticleController {
    *
    * @param user 当前登录用户
    * @param id 文章ID
-   * @return 文章详情（包含 collected 状态）
+   * @return 点赞/收藏状态与计数
    */
   @SecurityRequirement(name = "BearerAuth")
   @Operation(summary = "收藏/取消收藏")
   @PostMapping("/{id}/collect")
-  public ResponseEntity<ApiResponse<ArticleResponse>> collect(
+  public ResponseEntity<ApiResponse<ArticleInteractionResponse>> collect(
       @AuthenticationPrincipal CustomUserDetails user, @PathVariable("id") Long id) {
     return ResponseEntity.ok(ApiResponse.success(articleService.toggleCollect(user.getId(), id)));
   }
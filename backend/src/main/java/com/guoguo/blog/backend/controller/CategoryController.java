@@ -11,18 +11,22 @@ import com.guoguo.blog.backend.entity.Category;
 import com.guoguo.blog.backend.exception.BusinessException;
 import com.guoguo.blog.backend.security.CustomUserDetails;
 import com.guoguo.blog.backend.service.ArticleService;
+import com.guoguo.blog.backend.service.CategoryChangedEvent;
+import com.guoguo.blog.backend.service.CategoryTreeSnapshot;
 import com.guoguo.blog.backend.repository.CategoryRepository;
 import com.guoguo.blog.backend.repository.UserRepository;
 import com.guoguo.blog.backend.entity.User;
 import com.guoguo.blog.backend.web.ApiResponse;
+import com.guoguo.blog.backend.web.HttpCaching;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
-import java.util.Map;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -58,6 +62,8 @@ public class CategoryController {
   private final CategoryRepository categoryRepository;
   private final UserRepository userRepository;
   private final ArticleService articleService;
+  private final CategoryTreeSnapshot categoryTreeSnapshot;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * 获取分类列表
@@ -65,6 +71,7 @@ public class CategoryController {
    * @return 分类列表
    */
   @Operation(summary = "获取分类列表")
+  @HttpCaching(maxAge = 300, etag = HttpCaching.Source.CATEGORIES)
   @GetMapping
   public ResponseEntity<ApiResponse<List<CategoryDTO>>> list() {
     List<CategoryDTO> list =
@@ -84,6 +91,7 @@ public class CategoryController {
    * @return 分类分页列表
    */
   @Operation(summary = "获取分类分页列表")
+  @HttpCaching(maxAge = 300, etag = HttpCaching.Source.CATEGORIES)
   @GetMapping("/page")
   public ResponseEntity<ApiResponse<PageResponse<CategoryDTO>>> page(
       @RequestParam(name = "page", defaultValue = "1") int page,
@@ -135,29 +143,13 @@ public class CategoryController {
    * 获取分类树
    *
    * @param enabled 是否仅返回启用分类（可为空）
-   * @return 分类树
+   * @return 分类树（{@link CategoryTreeDTO} 列表，由内存快照预先序列化）
    */
   @Operation(summary = "获取分类树")
+  @HttpCaching(maxAge = 300, etag = HttpCaching.Source.CATEGORIES)
   @GetMapping("/tree")
-  public ResponseEntity<ApiResponse<List<CategoryTreeDTO>>> tree(
-      @RequestParam(name = "enabled", required = false) Boolean enabled) {
-    List<Category> all =
-        enabled == null
-            ? categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "sortOrder").and(Sort.by(Sort.Direction.DESC, "id")))
-            : categoryRepository.findAll(
-                (root, query, cb) -> cb.equal(root.get("enabled"), enabled),
-                Sort.by(Sort.Direction.ASC, "sortOrder").and(Sort.by(Sort.Direction.DESC, "id")));
-
-    Map<Long, List<Category>> childrenMap =
-        all.stream()
-            .collect(
-                Collectors.groupingBy(
-                    c -> c.getParent() == null ? 0L : c.getParent().getId(), Collectors.toList()));
-
-    List<Category> roots = childrenMap.getOrDefault(0L, List.of());
-    List<CategoryTreeDTO> tree =
-        roots.stream().map(r -> toTreeDTO(r, childrenMap)).collect(Collectors.toList());
-    return ResponseEntity.ok(ApiResponse.success(tree));
+  public ResponseEntity<byte[]> tree(@RequestParam(name = "enabled", required = false) Boolean enabled) {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(categoryTreeSnapshot.treeJson(enabled));
   }
 
   /**
@@ -167,6 +159,7 @@ public class CategoryController {
    * @return 分类详情
    */
   @Operation(summary = "获取分类详情")
+  @HttpCaching(maxAge = 300, etag = HttpCaching.Source.CATEGORIES)
   @GetMapping("/{id}")
   public ResponseEntity<ApiResponse<CategoryDTO>> detail(@PathVariable("id") Long id) {
     Category category = categoryRepository.findById(id).orElseThrow(() -> new BusinessException("CATEGORY_NOT_FOUND", "分类不存在"));
@@ -180,9 +173,11 @@ public class CategoryController {
    * @param id 分类ID
    * @param page 页码
    * @param size 每页大小
+   * @param cursor 游标；传入（首屏传空字符串）即启用游标分页，此时忽略 page 且不返回总数
    * @return 文章列表
    */
   @Operation(summary = "获取分类下文章")
+  @HttpCaching(maxAge = 30, etag = HttpCaching.Source.ARTICLES)
   @GetMapping("/{id}/articles")
   public ResponseEntity<ApiResponse<PageResponse<ArticleListItem>>> articles(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -190,8 +185,14 @@ public class CategoryController {
       @RequestParam(name = "page", defaultValue = "1") int page,
       @RequestParam(name = "size", defaultValue = "20") int size,
       @RequestParam(name = "sortBy", defaultValue = "publishedAt") String sortBy,
-      @RequestParam(name = "order", defaultValue = "desc") String order) {
+      @RequestParam(name = "order", defaultValue = "desc") String order,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     Long viewerId = user == null ? null : user.getId();
+    if (cursor != null) {
+      return ResponseEntity.ok(
+          ApiResponse.success(
+              articleService.listArticlesByCursor(viewerId, cursor, size, sortBy, order, "PUBLISHED", id, null, null, null)));
+    }
     return ResponseEntity.ok(
         ApiResponse.success(
             articleService.listArticles(viewerId, page, size, sortBy, order, "PUBLISHED", id, null, null, null)));
@@ -237,6 +238,7 @@ public class CategoryController {
             .createdBy(creator)
             .build();
     category = categoryRepository.save(category);
+    eventPublisher.publishEvent(new CategoryChangedEvent(Set.of(category.getId())));
     return ResponseEntity.ok(ApiResponse.success("分类创建成功", toCategoryDTO(category)));
   }
 
@@ -280,6 +282,7 @@ public class CategoryController {
       category.setLevel(Math.max(parent.getLevel() == null ? 1 : parent.getLevel(), 1) + 1);
     }
     categoryRepository.save(category);
+    eventPublisher.publishEvent(new CategoryChangedEvent(Set.of(id)));
     return ResponseEntity.ok(ApiResponse.success("分类更新成功", toCategoryDTO(category)));
   }
 
@@ -296,6 +299,7 @@ public class CategoryController {
     Category category =
         categoryRepository.findById(id).orElseThrow(() -> new BusinessException("CATEGORY_NOT_FOUND", "分类不存在"));
     categoryRepository.delete(category);
+    eventPublisher.publishEvent(new CategoryChangedEvent(Set.of(id)));
     return ResponseEntity.ok(ApiResponse.success("分类删除成功"));
   }
 
@@ -314,6 +318,7 @@ public class CategoryController {
       c.setEnabled(request.getEnabled());
     }
     categoryRepository.saveAll(list);
+    eventPublisher.publishEvent(new CategoryChangedEvent(list.stream().map(Category::getId).collect(Collectors.toSet())));
     return ResponseEntity.ok(ApiResponse.success("状态更新成功"));
   }
 
@@ -334,19 +339,4 @@ public class CategoryController {
         .createdAt(category.getCreatedAt())
         .build();
   }
-
-  private CategoryTreeDTO toTreeDTO(Category category, Map<Long, List<Category>> childrenMap) {
-    List<Category> children = childrenMap.getOrDefault(category.getId(), List.of());
-    return CategoryTreeDTO.builder()
-        .id(category.getId())
-        .name(category.getName())
-        .slug(category.getSlug())
-        .icon(category.getIcon())
-        .color(category.getColor())
-        .sortOrder(category.getSortOrder())
-        .articleCount(category.getArticleCount())
-        .enabled(category.getEnabled())
-        .children(children.stream().map(c -> toTreeDTO(c, childrenMap)).collect(Collectors.toList()))
-        .build();
-  }
 }
@@ -14,13 +14,18 @@ import com.guoguo.blog.backend.repository.TagFollowRepository;
 import com.guoguo.blog.backend.repository.UserRepository;
 import com.guoguo.blog.backend.security.CustomUserDetails;
 import com.guoguo.blog.backend.service.ArticleService;
+import com.guoguo.blog.backend.service.FollowedTagCache;
+import com.guoguo.blog.backend.service.TagChangedEvent;
+import com.guoguo.blog.backend.service.TagDictionary;
 import com.guoguo.blog.backend.web.ApiResponse;
+import com.guoguo.blog.backend.web.HttpCaching;
 import io.swagger.v3.oas.annotations.Operation;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -56,6 +61,9 @@ public class TagController {
   private final TagFollowRepository tagFollowRepository;
   private final UserRepository userRepository;
   private final ArticleService articleService;
+  private final TagDictionary tagDictionary;
+  private final FollowedTagCache followedTagCache;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * 获取标签列表
@@ -63,15 +71,12 @@ public class TagController {
    * @return 标签列表
    */
   @Operation(summary = "获取标签列表")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping
   public ResponseEntity<ApiResponse<List<TagDTO>>> list(@AuthenticationPrincipal CustomUserDetails user) {
-    Long viewerId = user == null ? null : user.getId();
-    Set<Long> followingIds =
-        viewerId == null ? Set.of() : Set.copyOf(tagFollowRepository.findTagIdsByUserId(viewerId));
+    LongPredicate following = followedTagCache.following(user == null ? null : user.getId());
     List<TagDTO> list =
-        tagRepository.findAll().stream()
-            .map(t -> toTagDTO(t, followingIds.contains(t.getId())))
-            .collect(Collectors.toList());
+        tagDictionary.all().stream().map(t -> withFollowing(t, following.test(t.getId()))).collect(Collectors.toList());
     return ResponseEntity.ok(ApiResponse.success(list));
   }
 
@@ -90,6 +95,7 @@ public class TagController {
    * @return 标签分页列表
    */
   @Operation(summary = "获取标签分页列表")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping("/page")
   public ResponseEntity<ApiResponse<PageResponse<TagDTO>>> page(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -101,9 +107,7 @@ public class TagController {
       @RequestParam(name = "enabled", required = false) Boolean enabled,
       @RequestParam(name = "sortBy", defaultValue = "articleCount") String sortBy,
       @RequestParam(name = "order", defaultValue = "desc") String order) {
-    Long viewerId = user == null ? null : user.getId();
-    Set<Long> followingIds =
-        viewerId == null ? Set.of() : Set.copyOf(tagFollowRepository.findTagIdsByUserId(viewerId));
+    LongPredicate following = followedTagCache.following(user == null ? null : user.getId());
 
     String sortField =
         switch (sortBy == null ? "" : sortBy.trim()) {
@@ -137,7 +141,7 @@ public class TagController {
 
     List<TagDTO> list =
         tagPage.getContent().stream()
-            .map(t -> toTagDTO(t, followingIds.contains(t.getId())))
+            .map(t -> toTagDTO(t, following.test(t.getId())))
             .collect(Collectors.toList());
 
     return ResponseEntity.ok(
@@ -157,13 +161,16 @@ public class TagController {
    * @return 标签详情
    */
   @Operation(summary = "获取标签详情")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping("/{id}")
   public ResponseEntity<ApiResponse<TagDTO>> detail(
       @AuthenticationPrincipal CustomUserDetails user, @PathVariable("id") Long id) {
-    Tag tag = tagRepository.findById(id).orElseThrow(() -> new BusinessException("TAG_NOT_FOUND", "标签不存在"));
-    boolean following =
-        user != null && tagFollowRepository.findByUser_IdAndTag_Id(user.getId(), id).isPresent();
-    return ResponseEntity.ok(ApiResponse.success(toTagDTO(tag, following)));
+    TagDTO tag = tagDictionary.get(id);
+    if (tag == null) {
+      throw new BusinessException("TAG_NOT_FOUND", "标签不存在");
+    }
+    boolean following = followedTagCache.isFollowing(user == null ? null : user.getId(), id);
+    return ResponseEntity.ok(ApiResponse.success(withFollowing(tag, following)));
   }
 
   /**
@@ -173,9 +180,11 @@ public class TagController {
    * @param id 标签ID
    * @param page 页码
    * @param size 每页大小
+   * @param cursor 游标；传入（首屏传空字符串）即启用游标分页，此时忽略 page 且不返回总数
    * @return 文章分页列表
    */
   @Operation(summary = "获取标签下文章")
+  @HttpCaching(maxAge = 30, etag = HttpCaching.Source.ARTICLES)
   @GetMapping("/{id}/articles")
   public ResponseEntity<ApiResponse<PageResponse<ArticleListItem>>> articles(
       @AuthenticationPrincipal CustomUserDetails user,
@@ -183,8 +192,14 @@ public class TagController {
       @RequestParam(name = "page", defaultValue = "1") int page,
       @RequestParam(name = "size", defaultValue = "20") int size,
       @RequestParam(name = "sortBy", defaultValue = "publishedAt") String sortBy,
-      @RequestParam(name = "order", defaultValue = "desc") String order) {
+      @RequestParam(name = "order", defaultValue = "desc") String order,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     Long viewerId = user == null ? null : user.getId();
+    if (cursor != null) {
+      return ResponseEntity.ok(
+          ApiResponse.success(
+              articleService.listArticlesByCursor(viewerId, cursor, size, sortBy, order, "PUBLISHED", null, id, null, null)));
+    }
     return ResponseEntity.ok(
         ApiResponse.success(
             articleService.listArticles(viewerId, page, size, sortBy, order, "PUBLISHED", null, id, null, null)));
@@ -196,19 +211,16 @@ public class TagController {
    * @return 热门标签列表
    */
   @Operation(summary = "热门标签")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping("/popular")
   public ResponseEntity<ApiResponse<List<TagDTO>>> popular(
       @AuthenticationPrincipal CustomUserDetails user,
       @RequestParam(name = "limit", defaultValue = "10") int limit,
       @RequestParam(name = "period", required = false) String period) {
-    Long viewerId = user == null ? null : user.getId();
-    Set<Long> followingIds =
-        viewerId == null ? Set.of() : Set.copyOf(tagFollowRepository.findTagIdsByUserId(viewerId));
+    LongPredicate following = followedTagCache.following(user == null ? null : user.getId());
     List<TagDTO> list =
-        tagRepository.findPopularTop50().stream()
-            .filter(t -> t.getEnabled() == null || Boolean.TRUE.equals(t.getEnabled()))
-            .limit(Math.max(limit, 1))
-            .map(t -> toTagDTO(t, followingIds.contains(t.getId())))
+        tagDictionary.popular(limit).stream()
+            .map(t -> withFollowing(t, following.test(t.getId())))
             .collect(Collectors.toList());
     return ResponseEntity.ok(ApiResponse.success(list));
   }
@@ -221,16 +233,14 @@ public class TagController {
    * @return 推荐标签列表
    */
   @Operation(summary = "推荐标签")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping("/recommended")
   public ResponseEntity<ApiResponse<List<TagDTO>>> recommended(
       @AuthenticationPrincipal CustomUserDetails user, @RequestParam(name = "limit", defaultValue = "10") int limit) {
-    Long viewerId = user == null ? null : user.getId();
-    Set<Long> followingIds =
-        viewerId == null ? Set.of() : Set.copyOf(tagFollowRepository.findTagIdsByUserId(viewerId));
+    LongPredicate following = followedTagCache.following(user == null ? null : user.getId());
     List<TagDTO> list =
-        tagRepository.findRecommendedTop50().stream()
-            .limit(Math.max(limit, 1))
-            .map(t -> toTagDTO(t, followingIds.contains(t.getId())))
+        tagDictionary.recommended(limit).stream()
+            .map(t -> withFollowing(t, following.test(t.getId())))
             .collect(Collectors.toList());
     return ResponseEntity.ok(ApiResponse.success(list));
   }
@@ -244,14 +254,13 @@ public class TagController {
    * @return 标签列表
    */
   @Operation(summary = "标签搜索")
+  @HttpCaching(maxAge = 60, etag = HttpCaching.Source.TAGS, viewerSpecific = true)
   @GetMapping("/search")
   public ResponseEntity<ApiResponse<List<TagDTO>>> search(
       @AuthenticationPrincipal CustomUserDetails user,
       @RequestParam(name = "keyword") String keyword,
       @RequestParam(name = "limit", defaultValue = "10") int limit) {
-    Long viewerId = user == null ? null : user.getId();
-    Set<Long> followingIds =
-        viewerId == null ? Set.of() : Set.copyOf(tagFollowRepository.findTagIdsByUserId(viewerId));
+    LongPredicate following = followedTagCache.following(user == null ? null : user.getId());
 
     List<TagDTO> list =
         tagRepository.findAll(
@@ -264,7 +273,7 @@ public class TagController {
                 PageRequest.of(0, Math.max(limit, 1), Sort.by(Sort.Direction.DESC, "articleCount")))
             .getContent()
             .stream()
-            .map(t -> toTagDTO(t, followingIds.contains(t.getId())))
+            .map(t -> toTagDTO(t, following.test(t.getId())))
             .collect(Collectors.toList());
     return ResponseEntity.ok(ApiResponse.success(list));
   }
@@ -285,10 +294,12 @@ public class TagController {
     TagFollow existing = tagFollowRepository.findByUser_IdAndTag_Id(user.getId(), id).orElse(null);
     if (existing != null) {
       tagFollowRepository.delete(existing);
+      followedTagCache.evict(user.getId());
       return ResponseEntity.ok(ApiResponse.success("已取消关注", false));
     }
     User u = userRepository.findById(user.getId()).orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
     tagFollowRepository.save(TagFollow.builder().user(u).tag(tag).build());
+    followedTagCache.evict(user.getId());
     return ResponseEntity.ok(ApiResponse.success("关注成功", true));
   }
 
@@ -321,6 +332,7 @@ public class TagController {
             .system(false)
             .build();
     tag = tagRepository.save(tag);
+    eventPublisher.publishEvent(new TagChangedEvent(tag.getId()));
     return ResponseEntity.ok(ApiResponse.success("标签创建成功", toTagDTO(tag, false)));
   }
 
@@ -354,7 +366,8 @@ public class TagController {
     if (request.getHot() != null) tag.setHot(request.getHot());
     if (request.getEnabled() != null) tag.setEnabled(request.getEnabled());
     tagRepository.save(tag);
-    boolean following = tagFollowRepository.findByUser_IdAndTag_Id(user.getId(), id).isPresent();
+    eventPublisher.publishEvent(new TagChangedEvent(id));
+    boolean following = followedTagCache.isFollowing(user.getId(), id);
     return ResponseEntity.ok(ApiResponse.success("标签更新成功", toTagDTO(tag, following)));
   }
 
@@ -370,26 +383,15 @@ public class TagController {
   public ResponseEntity<ApiResponse<Void>> delete(@PathVariable("id") Long id) {
     Tag tag = tagRepository.findById(id).orElseThrow(() -> new BusinessException("TAG_NOT_FOUND", "标签不存在"));
     tagRepository.delete(tag);
+    eventPublisher.publishEvent(new TagChangedEvent(id));
     return ResponseEntity.ok(ApiResponse.success("标签删除成功"));
   }
 
   private TagDTO toTagDTO(Tag tag, boolean following) {
-    return TagDTO.builder()
-        .id(tag.getId())
-        .name(tag.getName())
-        .slug(tag.getSlug())
-        .description(tag.getDescription())
-        .icon(tag.getIcon())
-        .color(tag.getColor())
-        .articleCount(tag.getArticleCount())
-        .viewCount(tag.getViewCount())
-        .recommended(tag.getRecommended())
-        .hot(tag.getHot())
-        .system(tag.getSystem())
-        .enabled(tag.getEnabled())
-        .following(following)
-        .style(tag.getStyle())
-        .createdAt(tag.getCreatedAt())
-        .build();
+    return withFollowing(tagDictionary.toTagDTO(tag), following);
+  }
+
+  private static TagDTO withFollowing(TagDTO tag, boolean following) {
+    return tag.toBuilder().following(following).build();
   }
 }
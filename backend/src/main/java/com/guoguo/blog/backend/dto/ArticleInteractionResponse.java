@@ -0,0 +1,29 @@
+package com.guoguo.blog.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "文章互动结果（点赞/收藏）")
+public class ArticleInteractionResponse {
+  @Schema(description = "文章ID")
+  private Long id;
+
+  @Schema(description = "点赞数")
+  private Long likeCount;
+
+  @Schema(description = "收藏数")
+  private Long collectCount;
+
+  @Schema(description = "当前用户是否点赞")
+  private Boolean liked;
+
+  @Schema(description = "当前用户是否收藏")
+  private Boolean collected;
+}
@@ -1,5 +1,6 @@
 package com.guoguo.blog.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -58,5 +59,9 @@ public class ArticleListItem {
 
   @Schema(description = "创建时间")
   private LocalDateTime createdAt;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Schema(description = "搜索命中高亮片段（仅搜索结果返回，已做 HTML 转义，命中词以 <em> 包裹）")
+  private String highlight;
 }
 
@@ -9,7 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "文章详情响应")
@@ -35,6 +35,12 @@ public class ArticleResponse {
   @Schema(description = "HTML内容")
   private String htmlContent;
 
+  @Schema(description = "目录")
+  private List<TocItem> toc;
+
+  @Schema(description = "字数")
+  private Integer wordCount;
+
   @Schema(description = "状态")
   private String status;
 
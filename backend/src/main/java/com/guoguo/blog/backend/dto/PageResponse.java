@@ -1,5 +1,6 @@
 package com.guoguo.blog.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -13,16 +14,22 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Schema(description = "分页响应")
 public class PageResponse<T> {
-  @Schema(description = "当前页码（从1开始）")
-  private int page;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Schema(description = "当前页码（从1开始，游标分页时不返回）")
+  private Integer page;
 
   @Schema(description = "每页大小")
   private int size;
 
-  @Schema(description = "总条数")
-  private long total;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Schema(description = "总条数（游标分页时不返回）")
+  private Long total;
 
   @Schema(description = "数据列表")
   private List<T> list;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Schema(description = "下一页游标（仅游标分页返回，为空表示没有更多数据）")
+  private String nextCursor;
 }
 
@@ -0,0 +1,23 @@
+package com.guoguo.blog.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "文章目录项")
+public class TocItem {
+  @Schema(description = "标题级别（1-6）")
+  private Integer level;
+
+  @Schema(description = "标题文本")
+  private String text;
+
+  @Schema(description = "锚点ID（htmlContent 中标题不带 id，前端按目录顺序设置到对应的非空标题上）")
+  private String anchor;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -23,7 +24,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "articles")
+@Table(
+    name = "articles",
+    indexes = {
+      @Index(name = "idx_articles_feed_published", columnList = "status,visibility,published_at,id"),
+      @Index(name = "idx_articles_feed_created", columnList = "status,visibility,created_at,id"),
+      @Index(name = "idx_articles_feed_views", columnList = "status,visibility,view_count,id"),
+      @Index(name = "idx_articles_updated_at", columnList = "updated_at")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -56,6 +64,15 @@ public class Article {
   @Column(name = "html_content", columnDefinition = "LONGTEXT")
   private String htmlContent;
 
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
+  @Column(name = "toc_json", columnDefinition = "TEXT")
+  private String tocJson;
+
+  @Column(name = "word_count")
+  private Integer wordCount;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false, length = 20)
   @Default
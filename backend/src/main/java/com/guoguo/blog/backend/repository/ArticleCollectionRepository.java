@@ -5,15 +5,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ArticleCollectionRepository extends JpaRepository<ArticleCollection, Long> {
   Optional<ArticleCollection> findByArticle_IdAndUser_Id(Long articleId, Long userId);
 
   long countByArticle_Id(Long articleId);
 
+  boolean existsByArticle_IdAndUser_Id(Long articleId, Long userId);
+
   long countByUser_Id(Long userId);
 
   Page<ArticleCollection> findByUser_IdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
   void deleteByArticle_IdAndUser_Id(Long articleId, Long userId);
+
+  /**
+   * 幂等插入：依赖唯一约束，已存在时忽略，返回实际插入行数（0 或 1）。
+   */
+  @Modifying
+  @Query(
+      value =
+          "insert ignore into article_collections (article_id, user_id, created_at) values (:articleId, :userId, current_timestamp)",
+      nativeQuery = true)
+  int insertIgnore(@Param("articleId") Long articleId, @Param("userId") Long userId);
+
+  @Modifying
+  @Query("delete from ArticleCollection c where c.article.id = :articleId and c.user.id = :userId")
+  int deleteByArticleIdAndUserId(@Param("articleId") Long articleId, @Param("userId") Long userId);
 }
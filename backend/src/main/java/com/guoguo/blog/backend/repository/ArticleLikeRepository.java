@@ -3,10 +3,28 @@ package com.guoguo.blog.backend.repository;
 import com.guoguo.blog.backend.entity.ArticleLike;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ArticleLikeRepository extends JpaRepository<ArticleLike, Long> {
   Optional<ArticleLike> findByArticle_IdAndUser_Id(Long articleId, Long userId);
 
   long countByArticle_Id(Long articleId);
-}
 
+  boolean existsByArticle_IdAndUser_Id(Long articleId, Long userId);
+
+  /**
+   * 幂等插入：依赖唯一约束，已存在时忽略，返回实际插入行数（0 或 1）。
+   */
+  @Modifying
+  @Query(
+      value =
+          "insert ignore into article_likes (article_id, user_id, created_at) values (:articleId, :userId, current_timestamp)",
+      nativeQuery = true)
+  int insertIgnore(@Param("articleId") Long articleId, @Param("userId") Long userId);
+
+  @Modifying
+  @Query("delete from ArticleLike l where l.article.id = :articleId and l.user.id = :userId")
+  int deleteByArticleIdAndUserId(@Param("articleId") Long articleId, @Param("userId") Long userId);
+}
@@ -0,0 +1,31 @@
+package com.guoguo.blog.backend.repository;
+
+import com.guoguo.blog.backend.entity.ArticleStatus;
+import com.guoguo.blog.backend.entity.ArticleVisibility;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文章列表行
+ *
+ * <p>列表接口所需的文章列，不含 content/htmlContent 等大字段；作者与分类只保留外键ID，由组装层批量加载。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleListRow {
+  private final Long id;
+  private final String title;
+  private final String slug;
+  private final String coverImage;
+  private final String summary;
+  private final ArticleStatus status;
+  private final ArticleVisibility visibility;
+  private final Long authorId;
+  private final Long categoryId;
+  private final Long viewCount;
+  private final Long likeCount;
+  private final Long commentCount;
+  private final LocalDateTime publishedAt;
+  private final LocalDateTime createdAt;
+}
@@ -5,27 +5,28 @@ import com.guoguo.blog.backend.entity.ArticleStatus;
 import com.guoguo.blog.backend.entity.ArticleVisibility;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpecificationExecutor<Article> {
-  Optional<Article> findBySlug(String slug);
+public interface ArticleRepository
+    extends JpaRepository<Article, Long>, JpaSpecificationExecutor<Article>, ArticleRepositoryCustom {
+  /** 返回 slug 等于 base 或以 {@code base-} 开头的文章（走 slug 唯一索引的前缀范围扫描）。 */
+  @Query("select a.id as id, a.slug as slug from Article a where a.slug = :base or a.slug like concat(:base, '-%')")
+  List<ArticleSlugView> findSlugFamily(@Param("base") String base);
 
   @Query(
-      "select a from Article a where a.id = :id and a.status <> 'DELETED' and a.visibility = :visibility")
-  Optional<Article> findPublicById(@Param("id") Long id, @Param("visibility") ArticleVisibility visibility);
-
-  Page<Article> findByAuthorIdAndStatus(Long authorId, ArticleStatus status, Pageable pageable);
+      "select a.id as id, a.author.id as authorId, a.status as status, a.visibility as visibility, "
+          + "a.updatedAt as updatedAt, a.viewCount as viewCount, a.likeCount as likeCount, "
+          + "a.collectCount as collectCount, a.commentCount as commentCount, a.contentHash as contentHash "
+          + "from Article a where a.id = :id")
+  Optional<ArticleStateView> findStateById(@Param("id") Long id);
 
   @Query(
-      "select distinct a from Article a join ArticleTag at on at.article.id = a.id "
-          + "where at.tag.id in :tagIds and a.id <> :articleId and a.status = 'PUBLISHED' and a.visibility = 'PUBLIC' "
-          + "order by a.publishedAt desc")
-  List<Article> findRelatedPublic(@Param("articleId") Long articleId, @Param("tagIds") List<Long> tagIds, Pageable pageable);
+      "select a from Article a where a.id = :id and a.status <> 'DELETED' and a.visibility = :visibility")
+  Optional<Article> findPublicById(@Param("id") Long id, @Param("visibility") ArticleVisibility visibility);
 
   long countByAuthor_IdAndStatus(Long authorId, ArticleStatus status);
 
@@ -34,4 +35,16 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
 
   @Query("select coalesce(sum(a.likeCount), 0) from Article a where a.author.id = :authorId and a.status = 'PUBLISHED'")
   long sumLikesByAuthor(@Param("authorId") Long authorId);
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Article a set a.likeCount = case when a.likeCount + :delta < 0 then 0 else a.likeCount + :delta end "
+          + "where a.id = :id")
+  int adjustLikeCount(@Param("id") Long id, @Param("delta") long delta);
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Article a set a.collectCount = case when a.collectCount + :delta < 0 then 0 else a.collectCount + :delta end "
+          + "where a.id = :id")
+  int adjustCollectCount(@Param("id") Long id, @Param("delta") long delta);
 }
@@ -0,0 +1,18 @@
+package com.guoguo.blog.backend.repository;
+
+import com.guoguo.blog.backend.entity.Article;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ArticleRepositoryCustom {
+  Page<ArticleListRow> findListRows(Specification<Article> spec, Pageable pageable);
+
+  List<ArticleListRow> findListRows(Specification<Article> spec, Sort sort, int limit);
+
+  /** 按给定ID顺序返回列表行，不存在或不满足条件的ID被跳过。 */
+  List<ArticleListRow> findListRowsByIds(Collection<Long> ids, Specification<Article> spec);
+}
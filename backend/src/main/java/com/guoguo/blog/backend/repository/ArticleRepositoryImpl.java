@@ -0,0 +1,120 @@
+package com.guoguo.blog.backend.repository;
+
+import com.guoguo.blog.backend.entity.Article;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+class ArticleRepositoryImpl implements ArticleRepositoryCustom {
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Page<ArticleListRow> findListRows(Specification<Article> spec, Pageable pageable) {
+    TypedQuery<ArticleListRow> query = entityManager.createQuery(listQuery(spec, pageable.getSort()));
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+    return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+  }
+
+  @Override
+  public List<ArticleListRow> findListRows(Specification<Article> spec, Sort sort, int limit) {
+    return entityManager.createQuery(listQuery(spec, sort)).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<ArticleListRow> findListRowsByIds(Collection<Long> ids, Specification<Article> spec) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Specification<Article> byIds = (root, query, cb) -> root.get("id").in(ids);
+    Map<Long, ArticleListRow> rows =
+        entityManager.createQuery(listQuery(spec == null ? byIds : byIds.and(spec), Sort.unsorted())).getResultList().stream()
+            .collect(Collectors.toMap(ArticleListRow::getId, Function.identity()));
+    List<ArticleListRow> ordered = new ArrayList<>(rows.size());
+    for (Long id : ids) {
+      ArticleListRow row = rows.get(id);
+      if (row != null) {
+        ordered.add(row);
+      }
+    }
+    return ordered;
+  }
+
+  private CriteriaQuery<ArticleListRow> listQuery(Specification<Article> spec, Sort sort) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ArticleListRow> query = cb.createQuery(ArticleListRow.class);
+    Root<Article> root = query.from(Article.class);
+    query.select(
+        cb.construct(
+            ArticleListRow.class,
+            root.get("id"),
+            root.get("title"),
+            root.get("slug"),
+            root.get("coverImage"),
+            root.get("summary"),
+            root.get("status"),
+            root.get("visibility"),
+            root.get("author").get("id"),
+            root.get("category").get("id"),
+            root.get("viewCount"),
+            root.get("likeCount"),
+            root.get("commentCount"),
+            root.get("publishedAt"),
+            root.get("createdAt")));
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    if (sort.isSorted()) {
+      query.orderBy(toOrders(sort, root, cb));
+    }
+    return query;
+  }
+
+  /**
+   * 与 {@link QueryUtils#toOrders} 相同，另外支持 {@link Sort.NullHandling}：先按是否为 null 排序，不依赖数据库方言。
+   */
+  private static List<Order> toOrders(Sort sort, Root<Article> root, CriteriaBuilder cb) {
+    List<Order> orders = new ArrayList<>();
+    for (Sort.Order order : sort) {
+      if (order.getNullHandling() != Sort.NullHandling.NATIVE) {
+        Expression<Integer> nullRank = cb.<Integer>selectCase().when(cb.isNull(root.get(order.getProperty())), 1).otherwise(0);
+        orders.add(order.getNullHandling() == Sort.NullHandling.NULLS_LAST ? cb.asc(nullRank) : cb.desc(nullRank));
+      }
+      orders.addAll(QueryUtils.toOrders(Sort.by(order), root, cb));
+    }
+    return orders;
+  }
+
+  private long count(Specification<Article> spec) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Article> root = query.from(Article.class);
+    query.select(cb.count(root));
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    return entityManager.createQuery(query).getSingleResult();
+  }
+}
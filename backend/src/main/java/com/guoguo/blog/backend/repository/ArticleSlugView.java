@@ -0,0 +1,8 @@
+package com.guoguo.blog.backend.repository;
+
+/** 文章 slug 投影 */
+public interface ArticleSlugView {
+  Long getId();
+
+  String getSlug();
+}
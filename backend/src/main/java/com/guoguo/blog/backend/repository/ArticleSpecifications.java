@@ -0,0 +1,21 @@
+package com.guoguo.blog.backend.repository;
+
+import com.guoguo.blog.backend.entity.Article;
+import com.guoguo.blog.backend.entity.ArticleStatus;
+import com.guoguo.blog.backend.entity.ArticleVisibility;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ArticleSpecifications {
+  private ArticleSpecifications() {}
+
+  public static Specification<Article> publicArticles() {
+    return (root, query, cb) ->
+        cb.and(
+            cb.equal(root.get("status"), ArticleStatus.PUBLISHED),
+            cb.equal(root.get("visibility"), ArticleVisibility.PUBLIC));
+  }
+
+  public static Specification<Article> authorAndStatus(Long authorId, ArticleStatus status) {
+    return (root, query, cb) -> cb.and(cb.equal(root.get("author").get("id"), authorId), cb.equal(root.get("status"), status));
+  }
+}
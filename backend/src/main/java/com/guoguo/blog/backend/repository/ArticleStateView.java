@@ -0,0 +1,28 @@
+package com.guoguo.blog.backend.repository;
+
+import com.guoguo.blog.backend.entity.ArticleStatus;
+import com.guoguo.blog.backend.entity.ArticleVisibility;
+import java.time.LocalDateTime;
+
+/** 文章状态与计数投影（不含正文等大字段） */
+public interface ArticleStateView {
+  Long getId();
+
+  Long getAuthorId();
+
+  ArticleStatus getStatus();
+
+  ArticleVisibility getVisibility();
+
+  LocalDateTime getUpdatedAt();
+
+  Long getViewCount();
+
+  Long getLikeCount();
+
+  Long getCollectCount();
+
+  Long getCommentCount();
+
+  String getContentHash();
+}
@@ -0,0 +1,8 @@
+package com.guoguo.blog.backend.repository;
+
+import java.util.Collection;
+
+public interface ArticleTagRepositoryCustom {
+  /** 批量插入文章与标签的关联（一次 JDBC 批处理），返回插入行数。 */
+  int insertAll(Long articleId, Collection<Long> tagIds);
+}
@@ -0,0 +1,35 @@
+package com.guoguo.blog.backend.repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ArticleTagRepositoryImpl implements ArticleTagRepositoryCustom {
+  private static final String INSERT_SQL = "insert into article_tags (article_id, tag_id, created_at) values (?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  ArticleTagRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int insertAll(Long articleId, Collection<Long> tagIds) {
+    if (tagIds.isEmpty()) {
+      return 0;
+    }
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    List<Object[]> args = new ArrayList<>(tagIds.size());
+    for (Long tagId : tagIds) {
+      args.add(new Object[] {articleId, tagId, now});
+    }
+    int inserted = 0;
+    for (int count : jdbcTemplate.batchUpdate(INSERT_SQL, args)) {
+      // rewriteBatchedStatements 合并为多行插入时驱动返回 SUCCESS_NO_INFO（-2）
+      inserted += count < 0 ? 1 : count;
+    }
+    return inserted;
+  }
+}
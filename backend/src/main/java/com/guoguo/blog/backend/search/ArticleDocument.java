@@ -0,0 +1,30 @@
+package com.guoguo.blog.backend.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** 写入搜索索引的文章字段；对账时只加载筛选字段，文本字段为 null */
+@Getter
+@AllArgsConstructor
+public class ArticleDocument {
+  private final Long id;
+  private final String title;
+  private final String summary;
+  private final String content;
+  private final String status;
+  private final String visibility;
+  private final Long authorId;
+  private final Long categoryId;
+  private final LocalDateTime updatedAt;
+  private final List<Long> tagIds = new ArrayList<>();
+
+  /** 索引版本：更新时间与全部筛选字段，任一变化都需要重新写入 */
+  public String version() {
+    List<Long> tags = new ArrayList<>(tagIds);
+    tags.sort(null);
+    return updatedAt + "|" + status + "|" + visibility + "|" + authorId + "|" + categoryId + "|" + tags;
+  }
+}
@@ -0,0 +1,19 @@
+package com.guoguo.blog.backend.search;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** 关键词检索的筛选条件，为 null 的条件不生效 */
+@Getter
+@Builder
+public class ArticleSearchFilter {
+  private final String status;
+  private final boolean publicOnly;
+  private final Long authorId;
+  private final Long categoryId;
+  private final Long tagId;
+
+  public static ArticleSearchFilter publicArticles() {
+    return ArticleSearchFilter.builder().publicOnly(true).build();
+  }
+}
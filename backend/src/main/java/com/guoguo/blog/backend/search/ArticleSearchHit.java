@@ -0,0 +1,12 @@
+package com.guoguo.blog.backend.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ArticleSearchHit {
+  private final Long articleId;
+  private final float score;
+  private final String highlight;
+}
@@ -0,0 +1,329 @@
+package com.guoguo.blog.backend.search;
+
+import com.guoguo.blog.backend.util.MarkdownUtil;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 文章全文索引
+ *
+ * <p>进程内 Lucene 倒排索引，使用 smartcn 中文分词，索引标题、摘要与正文纯文本。写入后立即刷新近实时搜索器，
+ * 提交（落盘）按固定间隔进行；{@code app.search.index-dir} 为空时使用内存目录。状态、可见性、作者、分类与标签
+ * 作为过滤字段写入，检索时与关键词一起在索引内完成过滤、计数与分页。</p>
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex {
+  private static final String FIELD_ID = "id";
+  private static final String FIELD_TITLE = "title";
+  private static final String FIELD_SUMMARY = "summary";
+  private static final String FIELD_CONTENT = "content";
+  private static final String FIELD_STATUS = "status";
+  private static final String FIELD_VISIBILITY = "visibility";
+  private static final String FIELD_AUTHOR = "author";
+  private static final String FIELD_CATEGORY = "category";
+  private static final String FIELD_TAG = "tag";
+  private static final String FIELD_VERSION = "version";
+  private static final Map<String, Float> BOOSTS = Map.of(FIELD_TITLE, 3.0f, FIELD_SUMMARY, 2.0f, FIELD_CONTENT, 1.0f);
+
+  private final Analyzer analyzer = new SmartChineseAnalyzer();
+  private final Directory directory;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+  private final int fragmentSize;
+
+  public ArticleSearchIndex(
+      @Value("${app.search.index-dir:data/search-index}") String indexDir,
+      @Value("${app.search.fragment-size:120}") int fragmentSize)
+      throws IOException {
+    if (StringUtils.hasText(indexDir)) {
+      Path path = Path.of(indexDir);
+      Files.createDirectories(path);
+      this.directory = FSDirectory.open(path);
+    } else {
+      this.directory = new ByteBuffersDirectory();
+    }
+    IndexWriterConfig config = new IndexWriterConfig(analyzer);
+    config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+    this.writer = new IndexWriter(directory, config);
+    this.searcherManager = new SearcherManager(writer, null);
+    this.fragmentSize = Math.max(fragmentSize, 20);
+  }
+
+  public void upsert(ArticleDocument article) throws IOException {
+    writer.updateDocument(new Term(FIELD_ID, String.valueOf(article.getId())), toDocument(article));
+    searcherManager.maybeRefresh();
+  }
+
+  public void upsertAll(List<ArticleDocument> articles) throws IOException {
+    for (ArticleDocument article : articles) {
+      writer.updateDocument(new Term(FIELD_ID, String.valueOf(article.getId())), toDocument(article));
+    }
+    searcherManager.maybeRefresh();
+  }
+
+  public void delete(Long articleId) throws IOException {
+    writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(articleId)));
+    searcherManager.maybeRefresh();
+  }
+
+  public int numDocs() {
+    return writer.getDocStats().numDocs;
+  }
+
+  /**
+   * 按相关度返回已发布且公开的文章，带高亮片段。
+   */
+  public ArticleSearchResult searchPublic(String keyword, int page, int size) {
+    Query keywordQuery = parse(keyword);
+    if (keywordQuery == null) {
+      return ArticleSearchResult.empty();
+    }
+    Query query = filtered(keywordQuery, ArticleSearchFilter.publicArticles());
+    int from = Math.max(page - 1, 0) * Math.max(size, 1);
+    int to = from + Math.max(size, 1);
+
+    IndexSearcher searcher = acquire();
+    try {
+      TopDocs topDocs = searcher.search(query, to);
+      Highlighter highlighter = newHighlighter(keywordQuery);
+      List<ArticleSearchHit> hits = new ArrayList<>();
+      for (int i = from; i < topDocs.scoreDocs.length; i++) {
+        ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+        Document doc = searcher.storedFields().document(scoreDoc.doc);
+        hits.add(new ArticleSearchHit(Long.valueOf(doc.get(FIELD_ID)), scoreDoc.score, highlight(highlighter, doc)));
+      }
+      return new ArticleSearchResult(topDocs.totalHits.value, hits);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      release(searcher);
+    }
+  }
+
+  /**
+   * 按筛选条件与相关度分页返回命中的文章ID（不带高亮），总数为过滤后的命中数。
+   */
+  public ArticleSearchResult search(String keyword, ArticleSearchFilter filter, int offset, int limit) {
+    Query keywordQuery = parse(keyword);
+    if (keywordQuery == null) {
+      return ArticleSearchResult.empty();
+    }
+    int from = Math.max(offset, 0);
+    IndexSearcher searcher = acquire();
+    try {
+      TopDocs topDocs = searcher.search(filtered(keywordQuery, filter), from + Math.max(limit, 1));
+      List<ArticleSearchHit> hits = new ArrayList<>();
+      for (int i = from; i < topDocs.scoreDocs.length; i++) {
+        ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+        Long articleId = Long.valueOf(searcher.storedFields().document(scoreDoc.doc, Set.of(FIELD_ID)).get(FIELD_ID));
+        hits.add(new ArticleSearchHit(articleId, scoreDoc.score, null));
+      }
+      return new ArticleSearchResult(topDocs.totalHits.value, hits);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      release(searcher);
+    }
+  }
+
+  /**
+   * 返回索引中每篇文章的版本（见 {@link ArticleDocument#version()}），用于与数据库对账。
+   */
+  public Map<Long, String> versions() {
+    IndexSearcher searcher = acquire();
+    try {
+      Map<Long, String> versions = new HashMap<>();
+      Set<String> fields = Set.of(FIELD_ID, FIELD_VERSION);
+      for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+        LeafReader reader = context.reader();
+        Bits liveDocs = reader.getLiveDocs();
+        StoredFields storedFields = reader.storedFields();
+        for (int doc = 0; doc < reader.maxDoc(); doc++) {
+          if (liveDocs != null && !liveDocs.get(doc)) {
+            continue;
+          }
+          Document document = storedFields.document(doc, fields);
+          versions.put(Long.valueOf(document.get(FIELD_ID)), document.get(FIELD_VERSION));
+        }
+      }
+      return versions;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      release(searcher);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.search.commit-interval-ms:30000}",
+      fixedDelayString = "${app.search.commit-interval-ms:30000}")
+  public void commit() {
+    try {
+      if (writer.hasUncommittedChanges()) {
+        writer.commit();
+      }
+    } catch (IOException e) {
+      log.warn("search_index_commit_failed", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    commit();
+    searcherManager.close();
+    writer.close();
+    directory.close();
+  }
+
+  private Query parse(String keyword) {
+    if (!StringUtils.hasText(keyword)) {
+      return null;
+    }
+    MultiFieldQueryParser parser =
+        new MultiFieldQueryParser(new String[] {FIELD_TITLE, FIELD_SUMMARY, FIELD_CONTENT}, analyzer, BOOSTS);
+    try {
+      return parser.parse(QueryParser.escape(keyword.trim()));
+    } catch (ParseException e) {
+      return null;
+    }
+  }
+
+  private static Query filtered(Query keywordQuery, ArticleSearchFilter filter) {
+    BooleanQuery.Builder builder =
+        new BooleanQuery.Builder()
+            .add(keywordQuery, BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(FIELD_STATUS, "DELETED")), BooleanClause.Occur.MUST_NOT);
+    if (filter.getStatus() != null) {
+      builder.add(new TermQuery(new Term(FIELD_STATUS, filter.getStatus())), BooleanClause.Occur.FILTER);
+    }
+    if (filter.isPublicOnly()) {
+      builder.add(new TermQuery(new Term(FIELD_STATUS, "PUBLISHED")), BooleanClause.Occur.FILTER);
+      builder.add(new TermQuery(new Term(FIELD_VISIBILITY, "PUBLIC")), BooleanClause.Occur.FILTER);
+    }
+    if (filter.getAuthorId() != null) {
+      builder.add(new TermQuery(new Term(FIELD_AUTHOR, String.valueOf(filter.getAuthorId()))), BooleanClause.Occur.FILTER);
+    }
+    if (filter.getCategoryId() != null) {
+      builder.add(new TermQuery(new Term(FIELD_CATEGORY, String.valueOf(filter.getCategoryId()))), BooleanClause.Occur.FILTER);
+    }
+    if (filter.getTagId() != null) {
+      builder.add(new TermQuery(new Term(FIELD_TAG, String.valueOf(filter.getTagId()))), BooleanClause.Occur.FILTER);
+    }
+    return builder.build();
+  }
+
+  private Highlighter newHighlighter(Query query) {
+    QueryScorer scorer = new QueryScorer(query);
+    Highlighter highlighter =
+        new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(), scorer);
+    highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, fragmentSize));
+    return highlighter;
+  }
+
+  private String highlight(Highlighter highlighter, Document doc) throws IOException {
+    for (String field : new String[] {FIELD_CONTENT, FIELD_SUMMARY, FIELD_TITLE}) {
+      String text = doc.get(field);
+      if (!StringUtils.hasText(text)) {
+        continue;
+      }
+      try {
+        String fragment = highlighter.getBestFragment(analyzer, field, text);
+        if (fragment != null) {
+          return fragment;
+        }
+      } catch (InvalidTokenOffsetsException e) {
+        log.debug("search_highlight_failed: field={}", field, e);
+      }
+    }
+    return null;
+  }
+
+  private Document toDocument(ArticleDocument article) {
+    Document doc = new Document();
+    doc.add(new StringField(FIELD_ID, String.valueOf(article.getId()), Field.Store.YES));
+    doc.add(new StringField(FIELD_STATUS, nullToEmpty(article.getStatus()), Field.Store.NO));
+    doc.add(new StringField(FIELD_VISIBILITY, nullToEmpty(article.getVisibility()), Field.Store.NO));
+    if (article.getAuthorId() != null) {
+      doc.add(new StringField(FIELD_AUTHOR, String.valueOf(article.getAuthorId()), Field.Store.NO));
+    }
+    if (article.getCategoryId() != null) {
+      doc.add(new StringField(FIELD_CATEGORY, String.valueOf(article.getCategoryId()), Field.Store.NO));
+    }
+    for (Long tagId : article.getTagIds()) {
+      doc.add(new StringField(FIELD_TAG, String.valueOf(tagId), Field.Store.NO));
+    }
+    doc.add(new StoredField(FIELD_VERSION, article.version()));
+    doc.add(new TextField(FIELD_TITLE, nullToEmpty(article.getTitle()), Field.Store.YES));
+    doc.add(new TextField(FIELD_SUMMARY, nullToEmpty(article.getSummary()), Field.Store.YES));
+    doc.add(new TextField(FIELD_CONTENT, MarkdownUtil.toPlainText(article.getContent()), Field.Store.YES));
+    return doc;
+  }
+
+  private IndexSearcher acquire() {
+    try {
+      return searcherManager.acquire();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void release(IndexSearcher searcher) {
+    try {
+      searcherManager.release(searcher);
+    } catch (IOException e) {
+      log.warn("search_searcher_release_failed", e);
+    }
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+}
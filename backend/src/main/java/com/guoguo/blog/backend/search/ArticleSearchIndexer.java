@@ -0,0 +1,183 @@
+package com.guoguo.blog.backend.search;
+
+import com.guoguo.blog.backend.service.ArticleChangedEvent;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 搜索索引同步
+ *
+ * <p>文章变更事务提交后增量更新索引。启动时及按固定间隔与数据库对账：按主键分批比对每篇文章的版本
+ * （更新时间与筛选字段），重新写入缺失或过期的文章，删除已删除或已不存在的文章；空索引的对账即全量重建。</p>
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndexer {
+  private static final String SELECT_COLUMNS =
+      "select id, title, summary, content, status, visibility, user_id, category_id, updated_at from articles ";
+  private static final String SELECT_STATES = "select id, status, visibility, user_id, category_id, updated_at from articles ";
+  private static final RowMapper<ArticleDocument> ROW_MAPPER =
+      (rs, rowNum) ->
+          new ArticleDocument(
+              rs.getLong("id"),
+              rs.getString("title"),
+              rs.getString("summary"),
+              rs.getString("content"),
+              rs.getString("status"),
+              rs.getString("visibility"),
+              getLong(rs, "user_id"),
+              getLong(rs, "category_id"),
+              toLocalDateTime(rs.getTimestamp("updated_at")));
+  private static final RowMapper<ArticleDocument> STATE_MAPPER =
+      (rs, rowNum) ->
+          new ArticleDocument(
+              rs.getLong("id"),
+              null,
+              null,
+              null,
+              rs.getString("status"),
+              rs.getString("visibility"),
+              getLong(rs, "user_id"),
+              getLong(rs, "category_id"),
+              toLocalDateTime(rs.getTimestamp("updated_at")));
+
+  private final ArticleSearchIndex index;
+  private final JdbcTemplate jdbcTemplate;
+  private final int rebuildBatchSize;
+  private final ReentrantLock reconcileLock = new ReentrantLock();
+
+  public ArticleSearchIndexer(
+      ArticleSearchIndex index,
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.search.rebuild-batch-size:500}") int rebuildBatchSize) {
+    this.index = index;
+    this.jdbcTemplate = jdbcTemplate;
+    this.rebuildBatchSize = Math.max(rebuildBatchSize, 1);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onArticleChanged(ArticleChangedEvent event) {
+    Long articleId = event.getArticleId();
+    try {
+      List<ArticleDocument> rows = load(SELECT_COLUMNS, List.of(articleId), ROW_MAPPER);
+      if (rows.isEmpty() || "DELETED".equals(rows.get(0).getStatus())) {
+        index.delete(articleId);
+      } else {
+        index.upsert(rows.get(0));
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("search_index_update_failed: articleId={}", articleId, e);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${app.search.reconcile-interval-ms:600000}",
+      fixedDelayString = "${app.search.reconcile-interval-ms:600000}")
+  public void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (IOException | RuntimeException e) {
+      log.warn("search_index_reconcile_failed", e);
+    }
+  }
+
+  public void reconcile() throws IOException {
+    if (!reconcileLock.tryLock()) {
+      return;
+    }
+    try {
+      Map<Long, String> indexed = index.versions();
+      long lastId = 0L;
+      int upserted = 0;
+      int deleted = 0;
+      while (true) {
+        List<ArticleDocument> states =
+            attachTags(
+                jdbcTemplate.query(SELECT_STATES + "where id > ? order by id limit ?", STATE_MAPPER, lastId, rebuildBatchSize));
+        if (states.isEmpty()) {
+          break;
+        }
+        List<Long> stale = new ArrayList<>();
+        for (ArticleDocument state : states) {
+          String version = indexed.remove(state.getId());
+          if ("DELETED".equals(state.getStatus())) {
+            if (version != null) {
+              index.delete(state.getId());
+              deleted++;
+            }
+          } else if (!state.version().equals(version)) {
+            stale.add(state.getId());
+          }
+        }
+        if (!stale.isEmpty()) {
+          List<ArticleDocument> documents = load(SELECT_COLUMNS, stale, ROW_MAPPER);
+          index.upsertAll(documents);
+          upserted += documents.size();
+        }
+        lastId = states.get(states.size() - 1).getId();
+      }
+      for (Long orphanId : indexed.keySet()) {
+        index.delete(orphanId);
+        deleted++;
+      }
+      index.commit();
+      if (upserted > 0 || deleted > 0) {
+        log.info("search_index_reconciled: upserted={}, deleted={}", upserted, deleted);
+      }
+    } finally {
+      reconcileLock.unlock();
+    }
+  }
+
+  private List<ArticleDocument> load(String select, List<Long> ids, RowMapper<ArticleDocument> mapper) {
+    String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+    return attachTags(jdbcTemplate.query(select + "where id in (" + placeholders + ")", mapper, ids.toArray()));
+  }
+
+  private List<ArticleDocument> attachTags(List<ArticleDocument> documents) {
+    if (documents.isEmpty()) {
+      return documents;
+    }
+    Map<Long, ArticleDocument> byId = new HashMap<>();
+    for (ArticleDocument document : documents) {
+      byId.put(document.getId(), document);
+    }
+    String placeholders = String.join(",", Collections.nCopies(byId.size(), "?"));
+    jdbcTemplate.query(
+        "select article_id, tag_id from article_tags where article_id in (" + placeholders + ")",
+        rs -> {
+          byId.get(rs.getLong("article_id")).getTagIds().add(rs.getLong("tag_id"));
+        },
+        byId.keySet().toArray());
+    return documents;
+  }
+
+  private static Long getLong(ResultSet rs, String column) throws SQLException {
+    long value = rs.getLong(column);
+    return rs.wasNull() ? null : value;
+  }
+
+  private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+    return timestamp == null ? null : timestamp.toLocalDateTime();
+  }
+}
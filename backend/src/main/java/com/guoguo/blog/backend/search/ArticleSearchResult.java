@@ -0,0 +1,16 @@
+package com.guoguo.blog.backend.search;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ArticleSearchResult {
+  private final long total;
+  private final List<ArticleSearchHit> hits;
+
+  public static ArticleSearchResult empty() {
+    return new ArticleSearchResult(0L, List.of());
+  }
+}
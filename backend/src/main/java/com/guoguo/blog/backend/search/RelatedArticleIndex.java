@@ -0,0 +1,430 @@
+package com.guoguo.blog.backend.search;
+
+import com.guoguo.blog.backend.service.ArticleChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 相关文章索引
+ *
+ * <p>对已发布的公开文章，以标签集合（按 IDF 加权的 Jaccard）和标题词集合（Jaccard，按权重叠加）计算相似度，
+ * 为每篇文章预先保存前 K 个相似文章。</p>
+ *
+ * <p>候选只来自共享标签/标题词的文章；文档频率超过 {@code max-candidate-df} 的标签与词区分度低，不参与候选生成
+ * （仍计入相似度），避免热门标签让候选集与重建耗时随文章数平方增长。</p>
+ *
+ * <p>相似度图只由一个后台线程读写。文章变更提交后只登记文章ID，由后台线程合并处理：重算该文章自己的列表；
+ * 原本列出它的文章，分数不降时原地更新，下降或移除时重算（由其它候选补上）；其余候选只在新分数超过自身第 K 名时插入。
+ * 未受影响的列表沿用原分数，IDF 的漂移由定期全量重建校正。全量重建在调用线程上构建新图并算好全部列表，
+ * 再交给后台线程整体替换，并重放重建期间变更过的文章。</p>
+ */
+@Slf4j
+@Component
+public class RelatedArticleIndex {
+  private static final String PUBLIC_ARTICLES_SQL =
+      "select id, title from articles where status = 'PUBLISHED' and visibility = 'PUBLIC'";
+  private static final String PUBLIC_ARTICLE_TAGS_SQL =
+      "select at.article_id, at.tag_id from article_tags at join articles a on a.id = at.article_id "
+          + "where a.status = 'PUBLISHED' and a.visibility = 'PUBLIC'";
+  /** 排名顺序：分数高者在前，同分时ID大者在前 */
+  private static final Comparator<Neighbour> RANKING =
+      Comparator.comparingDouble(Neighbour::score).thenComparing(Neighbour::id).reversed();
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Analyzer analyzer = new SmartChineseAnalyzer();
+  private final int topK;
+  private final double titleWeight;
+  private final int maxCandidateDf;
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private final ExecutorService updater =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread thread = new Thread(r, "related-index-updater");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final ConcurrentHashMap<Long, List<Long>> neighbours = new ConcurrentHashMap<>();
+
+  /** 仅由后台线程访问 */
+  private Graph graph = new Graph();
+  /** 仅由后台线程访问；重建进行中时非 null */
+  private Set<Long> changedDuringRebuild;
+
+  public RelatedArticleIndex(
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.article.related.top-k:10}") int topK,
+      @Value("${app.article.related.title-weight:0.3}") double titleWeight,
+      @Value("${app.article.related.max-candidate-df:1000}") int maxCandidateDf) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.topK = Math.max(topK, 1);
+    this.titleWeight = Math.max(titleWeight, 0d);
+    this.maxCandidateDf = Math.max(maxCandidateDf, 1);
+  }
+
+  public List<Long> neighbours(Long articleId, int limit) {
+    List<Long> ids = neighbours.getOrDefault(articleId, List.of());
+    return ids.subList(0, Math.min(Math.max(limit, 0), ids.size()));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${app.article.related.rebuild-interval-ms:600000}",
+      fixedDelayString = "${app.article.related.rebuild-interval-ms:600000}")
+  public void rebuild() {
+    rebuildLock.lock();
+    boolean swapped = false;
+    try {
+      // 先开始记录变更再读库：读库之后提交的变更一定会被重放
+      runOnUpdater(() -> changedDuringRebuild = new HashSet<>());
+      Map<Long, String> titles = new HashMap<>();
+      jdbcTemplate.query(PUBLIC_ARTICLES_SQL, rs -> {
+        titles.put(rs.getLong("id"), rs.getString("title"));
+      });
+      Map<Long, Set<Long>> tags = new HashMap<>();
+      jdbcTemplate.query(PUBLIC_ARTICLE_TAGS_SQL, rs -> {
+        tags.computeIfAbsent(rs.getLong("article_id"), k -> new HashSet<>()).add(rs.getLong("tag_id"));
+      });
+
+      Graph fresh = new Graph();
+      for (Map.Entry<Long, String> entry : titles.entrySet()) {
+        fresh.put(entry.getKey(), tags.getOrDefault(entry.getKey(), Set.of()), titleTerms(entry.getValue()));
+      }
+      Map<Long, List<Long>> computed = new HashMap<>();
+      for (Long articleId : titles.keySet()) {
+        List<Neighbour> ranked = fresh.computeNeighbours(articleId);
+        fresh.setRanked(articleId, ranked);
+        computed.put(articleId, ids(ranked));
+      }
+
+      runOnUpdater(
+          () -> {
+            graph = fresh;
+            neighbours.keySet().retainAll(computed.keySet());
+            neighbours.putAll(computed);
+            Set<Long> replay = changedDuringRebuild;
+            changedDuringRebuild = null;
+            replay.forEach(this::applyQuietly);
+          });
+      swapped = true;
+    } finally {
+      if (!swapped) {
+        updater.execute(() -> changedDuringRebuild = null);
+      }
+      rebuildLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onArticleChanged(ArticleChangedEvent event) {
+    pendingIds.add(event.getArticleId());
+    if (drainScheduled.compareAndSet(false, true)) {
+      updater.execute(this::drainPending);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    updater.shutdownNow();
+  }
+
+  /** 等待此前登记的变更处理完毕 */
+  void awaitUpdates() {
+    runOnUpdater(() -> {});
+  }
+
+  private void drainPending() {
+    drainScheduled.set(false);
+    for (Long articleId : pendingIds) {
+      pendingIds.remove(articleId);
+      applyQuietly(articleId);
+    }
+  }
+
+  private void applyQuietly(Long articleId) {
+    try {
+      List<String> titles =
+          jdbcTemplate.queryForList(
+              "select title from articles where id = ? and status = 'PUBLISHED' and visibility = 'PUBLIC'",
+              String.class,
+              articleId);
+      Set<Long> tags =
+          new HashSet<>(jdbcTemplate.queryForList("select tag_id from article_tags where article_id = ?", Long.class, articleId));
+      apply(articleId, titles.isEmpty() ? null : titles.get(0), tags);
+    } catch (RuntimeException e) {
+      log.warn("related_index_update_failed: articleId={}", articleId, e);
+    }
+  }
+
+  private void apply(Long articleId, String title, Set<Long> tags) {
+    if (changedDuringRebuild != null) {
+      changedDuringRebuild.add(articleId);
+    }
+    Set<Long> listing = graph.listedIn(articleId);
+    graph.remove(articleId);
+    neighbours.remove(articleId);
+    Set<Long> candidates = Set.of();
+    if (title != null) {
+      graph.put(articleId, tags, titleTerms(title));
+      publish(articleId, graph.computeNeighbours(articleId));
+      candidates = graph.candidates(articleId);
+    }
+    for (Long owner : listing) {
+      rescore(owner, articleId, candidates.contains(owner) ? graph.score(owner, articleId) : 0d);
+    }
+    for (Long owner : candidates) {
+      if (!listing.contains(owner)) {
+        offer(owner, new Neighbour(articleId, graph.score(owner, articleId)));
+      }
+    }
+  }
+
+  /** 列表中已有该文章：分数不降或列表未满时原地更新，否则重算整张列表，由其它候选补上 */
+  private void rescore(Long owner, Long articleId, double score) {
+    List<Neighbour> current = graph.ranked(owner);
+    Neighbour previous = current.stream().filter(n -> n.id().equals(articleId)).findFirst().orElse(null);
+    if (previous != null && current.size() >= topK && (score <= 0d || score < previous.score())) {
+      publish(owner, graph.computeNeighbours(owner));
+      return;
+    }
+    List<Neighbour> updated = new ArrayList<>(current);
+    updated.remove(previous);
+    if (score > 0d) {
+      updated.add(new Neighbour(articleId, score));
+      updated.sort(RANKING);
+    }
+    publish(owner, updated);
+  }
+
+  /** 列表中没有该文章：只有列表未满或排在第 K 名之前时才插入 */
+  private void offer(Long owner, Neighbour candidate) {
+    if (candidate.score() <= 0d) {
+      return;
+    }
+    List<Neighbour> current = graph.ranked(owner);
+    if (current.size() >= topK && RANKING.compare(candidate, current.get(current.size() - 1)) >= 0) {
+      return;
+    }
+    List<Neighbour> updated = new ArrayList<>(current);
+    updated.add(candidate);
+    updated.sort(RANKING);
+    publish(owner, updated.size() > topK ? updated.subList(0, topK) : updated);
+  }
+
+  private void publish(Long articleId, List<Neighbour> ranked) {
+    graph.setRanked(articleId, ranked);
+    if (ranked.isEmpty()) {
+      neighbours.remove(articleId);
+    } else {
+      neighbours.put(articleId, ids(ranked));
+    }
+  }
+
+  private static List<Long> ids(List<Neighbour> ranked) {
+    return ranked.stream().map(Neighbour::id).toList();
+  }
+
+  private void runOnUpdater(Runnable task) {
+    try {
+      updater.submit(task).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("related index update interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("related index update failed", e.getCause());
+    }
+  }
+
+  private Set<String> titleTerms(String title) {
+    Set<String> terms = new HashSet<>();
+    if (title == null || title.isBlank() || titleWeight == 0d) {
+      return terms;
+    }
+    try (TokenStream stream = analyzer.tokenStream("title", title)) {
+      CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+      stream.reset();
+      while (stream.incrementToken()) {
+        if (term.length() > 1) {
+          terms.add(term.toString());
+        }
+      }
+      stream.end();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return terms;
+  }
+
+  private static double jaccard(Set<String> a, Set<String> b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return 0d;
+    }
+    int intersection = 0;
+    for (String term : a) {
+      if (b.contains(term)) {
+        intersection++;
+      }
+    }
+    return (double) intersection / (a.size() + b.size() - intersection);
+  }
+
+  private record Neighbour(Long id, double score) {}
+
+  /** 标签与标题词的倒排、各文章的前 K 列表（含分数）及反向索引，相似度计算，不做同步 */
+  private final class Graph {
+    private final Map<Long, Set<Long>> articleTags = new HashMap<>();
+    private final Map<Long, Set<String>> articleTerms = new HashMap<>();
+    private final Map<Long, Set<Long>> tagPostings = new HashMap<>();
+    private final Map<String, Set<Long>> termPostings = new HashMap<>();
+    private final Map<Long, List<Neighbour>> ranked = new HashMap<>();
+    /** 文章ID -> 列表中包含它的文章ID */
+    private final Map<Long, Set<Long>> listedIn = new HashMap<>();
+
+    List<Neighbour> computeNeighbours(Long articleId) {
+      PriorityQueue<Neighbour> heap = new PriorityQueue<>(RANKING.reversed());
+      for (Long candidate : candidates(articleId)) {
+        double score = score(articleId, candidate);
+        if (score <= 0d) {
+          continue;
+        }
+        heap.offer(new Neighbour(candidate, score));
+        if (heap.size() > topK) {
+          heap.poll();
+        }
+      }
+      List<Neighbour> result = new ArrayList<>(heap);
+      result.sort(RANKING);
+      return result;
+    }
+
+    Set<Long> candidates(Long articleId) {
+      Set<Long> result = new HashSet<>();
+      for (Long tagId : articleTags.getOrDefault(articleId, Set.of())) {
+        addPosting(result, tagPostings.get(tagId));
+      }
+      if (titleWeight > 0d) {
+        for (String term : articleTerms.getOrDefault(articleId, Set.of())) {
+          addPosting(result, termPostings.get(term));
+        }
+      }
+      result.remove(articleId);
+      return result;
+    }
+
+    private void addPosting(Set<Long> result, Set<Long> posting) {
+      if (posting != null && posting.size() <= maxCandidateDf) {
+        result.addAll(posting);
+      }
+    }
+
+    List<Neighbour> ranked(Long articleId) {
+      return ranked.getOrDefault(articleId, List.of());
+    }
+
+    Set<Long> listedIn(Long articleId) {
+      return new HashSet<>(listedIn.getOrDefault(articleId, Set.of()));
+    }
+
+    void setRanked(Long owner, List<Neighbour> list) {
+      List<Neighbour> previous = list.isEmpty() ? ranked.remove(owner) : ranked.put(owner, List.copyOf(list));
+      if (previous != null) {
+        for (Neighbour neighbour : previous) {
+          Set<Long> owners = listedIn.get(neighbour.id());
+          if (owners != null && owners.remove(owner) && owners.isEmpty()) {
+            listedIn.remove(neighbour.id());
+          }
+        }
+      }
+      for (Neighbour neighbour : list) {
+        listedIn.computeIfAbsent(neighbour.id(), k -> new HashSet<>()).add(owner);
+      }
+    }
+
+    double score(Long a, Long b) {
+      Set<Long> tagsA = articleTags.getOrDefault(a, Set.of());
+      Set<Long> tagsB = articleTags.getOrDefault(b, Set.of());
+      double intersection = 0d;
+      double union = 0d;
+      for (Long tagId : tagsA) {
+        double idf = idf(tagId);
+        union += idf;
+        if (tagsB.contains(tagId)) {
+          intersection += idf;
+        }
+      }
+      for (Long tagId : tagsB) {
+        if (!tagsA.contains(tagId)) {
+          union += idf(tagId);
+        }
+      }
+      double score = union == 0d ? 0d : intersection / union;
+      if (titleWeight > 0d) {
+        score += titleWeight * jaccard(articleTerms.getOrDefault(a, Set.of()), articleTerms.getOrDefault(b, Set.of()));
+      }
+      return score;
+    }
+
+    double idf(Long tagId) {
+      int df = tagPostings.getOrDefault(tagId, Set.of()).size();
+      return Math.log(1d + (double) articleTags.size() / Math.max(df, 1));
+    }
+
+    void put(Long articleId, Set<Long> tags, Set<String> terms) {
+      articleTags.put(articleId, tags);
+      articleTerms.put(articleId, terms);
+      for (Long tagId : tags) {
+        tagPostings.computeIfAbsent(tagId, k -> new HashSet<>()).add(articleId);
+      }
+      for (String term : terms) {
+        termPostings.computeIfAbsent(term, k -> new HashSet<>()).add(articleId);
+      }
+    }
+
+    void remove(Long articleId) {
+      for (Long tagId : articleTags.getOrDefault(articleId, Set.of())) {
+        Set<Long> posting = tagPostings.get(tagId);
+        if (posting != null && posting.remove(articleId) && posting.isEmpty()) {
+          tagPostings.remove(tagId);
+        }
+      }
+      for (String term : articleTerms.getOrDefault(articleId, Set.of())) {
+        Set<Long> posting = termPostings.get(term);
+        if (posting != null && posting.remove(articleId) && posting.isEmpty()) {
+          termPostings.remove(term);
+        }
+      }
+      articleTags.remove(articleId);
+      articleTerms.remove(articleId);
+      setRanked(articleId, List.of());
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.guoguo.blog.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guoguo.blog.backend.service.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 认证主体缓存
+ *
+ * <p>按 JWT subject 缓存已加载的 {@link CustomUserDetails}（不含密码哈希），避免每个请求都查询用户与角色。
+ * 条目写入后在 TTL 内有效；用户变更事务提交后按用户ID主动失效。加载在缓存的 compute 之外进行，避免在桶锁内执行 JDBC
+ * （虚拟线程下会钉住载体线程）；并发未命中时可能重复加载。</p>
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+  private final Cache<String, CustomUserDetails> cache;
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public AuthenticatedPrincipalCache(
+      MeterRegistry meterRegistry,
+      @Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+      @Value("${app.jwt.principal-cache.ttl:60s}") Duration ttl) {
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "authenticatedPrincipal");
+  }
+
+  public CustomUserDetails get(String subject, Function<String, CustomUserDetails> loader) {
+    CustomUserDetails principal = cache.getIfPresent(subject);
+    if (principal != null) {
+      return principal;
+    }
+    long generation = invalidations.get();
+    principal = withoutPassword(loader.apply(subject));
+    cache.put(subject, principal);
+    // 加载期间发生过失效时不保留可能过期的结果
+    if (invalidations.get() != generation) {
+      cache.invalidate(subject);
+    }
+    return principal;
+  }
+
+  public void evictUser(Long userId) {
+    invalidations.incrementAndGet();
+    cache.asMap().values().removeIf(principal -> Objects.equals(principal.getId(), userId));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    evictUser(event.getUserId());
+  }
+
+  private static CustomUserDetails withoutPassword(CustomUserDetails principal) {
+    return new CustomUserDetails(
+        principal.getId(),
+        principal.getUsername(),
+        principal.getEmail(),
+        null,
+        principal.getAuthorities(),
+        principal.isEnabled(),
+        principal.isAccountNonLocked());
+  }
+}
@@ -1,11 +1,13 @@
 package com.guoguo.blog.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,15 +21,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtTokenProvider jwtTokenProvider;
   private final CustomUserDetailsService userDetailsService;
+  private final AuthenticatedPrincipalCache principalCache;
+
+  @Value("${app.jwt.trust-token-claims:false}")
+  private boolean trustTokenClaims;
 
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     String token = resolveToken(request);
-    if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-      String subject = jwtTokenProvider.getSubject(token);
-      UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
+    Claims claims = StringUtils.hasText(token) ? jwtTokenProvider.parse(token) : null;
+    if (claims != null) {
+      UserDetails userDetails = resolvePrincipal(claims);
       UsernamePasswordAuthenticationToken authentication =
           new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
       authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -36,6 +42,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  private UserDetails resolvePrincipal(Claims claims) {
+    if (trustTokenClaims) {
+      CustomUserDetails fromClaims = jwtTokenProvider.toPrincipal(claims);
+      if (fromClaims != null) {
+        return fromClaims;
+      }
+    }
+    return principalCache.get(claims.getSubject(), key -> (CustomUserDetails) userDetailsService.loadUserByUsername(key));
+  }
+
   private String resolveToken(HttpServletRequest request) {
     String bearerToken = request.getHeader("Authorization");
     if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
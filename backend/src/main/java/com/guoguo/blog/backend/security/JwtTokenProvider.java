@@ -1,6 +1,8 @@
 package com.guoguo.blog.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -12,18 +14,30 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+/**
+ * JWT 签发与校验
+ *
+ * <p>签名密钥与解析器在构造时创建一次并复用（二者均线程安全）；每个令牌每次请求只解析一次，由 {@link #parse} 返回声明。</p>
+ */
 @Component
 public class JwtTokenProvider {
-  @Value("${app.jwt.secret}")
-  private String jwtSecret;
+  private final Key signingKey;
+  private final JwtParser parser;
+  private final long accessTokenExpirationMs;
+  private final long refreshTokenExpirationMs;
 
-  @Value("${app.jwt.access-token-expiration-ms}")
-  private long accessTokenExpirationMs;
-
-  @Value("${app.jwt.refresh-token-expiration-ms}")
-  private long refreshTokenExpirationMs;
+  public JwtTokenProvider(
+      @Value("${app.jwt.secret}") String jwtSecret,
+      @Value("${app.jwt.access-token-expiration-ms}") long accessTokenExpirationMs,
+      @Value("${app.jwt.refresh-token-expiration-ms}") long refreshTokenExpirationMs) {
+    this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    this.accessTokenExpirationMs = accessTokenExpirationMs;
+    this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+  }
 
   public String generateAccessToken(Authentication authentication) {
     Date now = new Date();
@@ -37,7 +51,8 @@ public class JwtTokenProvider {
         .setIssuedAt(now)
         .setExpiration(expiryDate)
         .claim("authorities", authorities)
-        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+        .claim("uid", principalId(authentication))
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
@@ -49,31 +64,41 @@ public class JwtTokenProvider {
         .setSubject(subject)
         .setIssuedAt(now)
         .setExpiration(expiryDate)
-        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
-  public String getSubject(String token) {
-    Claims claims = parseClaims(token);
-    return claims.getSubject();
-  }
-
-  public boolean validateToken(String token) {
+  /**
+   * 校验签名与有效期并返回声明；令牌无效时返回 null。
+   */
+  public Claims parse(String token) {
     try {
-      parseClaims(token);
-      return true;
-    } catch (Exception e) {
-      return false;
+      return parser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
     }
   }
 
-  private Claims parseClaims(String token) {
-    return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+  /**
+   * 直接由访问令牌中的声明构造认证主体；令牌不含用户ID声明（如刷新令牌）时返回 null。
+   */
+  public CustomUserDetails toPrincipal(Claims claims) {
+    Long userId = claims.get("uid", Long.class);
+    List<?> authorities = claims.get("authorities", List.class);
+    if (userId == null || authorities == null) {
+      return null;
+    }
+    return new CustomUserDetails(
+        userId,
+        claims.getSubject(),
+        null,
+        null,
+        authorities.stream().map(a -> new SimpleGrantedAuthority(String.valueOf(a))).collect(Collectors.toList()),
+        true,
+        true);
   }
 
-  private Key getSigningKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-    return Keys.hmacShaKeyFor(keyBytes);
+  private static Long principalId(Authentication authentication) {
+    return authentication.getPrincipal() instanceof CustomUserDetails principal ? principal.getId() : null;
   }
 }
-
@@ -0,0 +1,50 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+/** 文章正文输出格式 */
+public enum ArticleBodyFormat {
+  HTML("html_content", new MediaType("text", "html", StandardCharsets.UTF_8)),
+  MARKDOWN("content", new MediaType("text", "markdown", StandardCharsets.UTF_8));
+
+  private final String column;
+  private final MediaType mediaType;
+
+  ArticleBodyFormat(String column, MediaType mediaType) {
+    this.column = column;
+    this.mediaType = mediaType;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /** 正文 ETag：正文哈希（缺失时取更新时间）+ 格式 */
+  public String etag(String contentHash, LocalDateTime updatedAt) {
+    String version = contentHash;
+    if (version == null) {
+      version = updatedAt == null ? "0" : String.valueOf(updatedAt.toEpochSecond(ZoneOffset.UTC));
+    }
+    return "\"" + version + "-" + name().toLowerCase() + "\"";
+  }
+
+  public static ArticleBodyFormat parse(String format) {
+    if (!StringUtils.hasText(format)) {
+      return HTML;
+    }
+    try {
+      return valueOf(format.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new BusinessException("INVALID_BODY_FORMAT", "正文格式不合法");
+    }
+  }
+}
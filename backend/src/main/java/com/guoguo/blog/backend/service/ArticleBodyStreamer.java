@@ -0,0 +1,52 @@
+package com.guoguo.blog.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章正文直接输出
+ *
+ * <p>从结果集以字符流读取正文列并分段写入响应，不经过实体、DTO 与 JSON 序列化，省去这几份完整副本。
+ * 正文列本身仍由驱动整行读入内存：MySQL Connector/J 无论是否开启流式结果集（fetchSize 为 Integer.MIN_VALUE）
+ * 或 useCursorFetch，都以行为单位缓冲，单行单列查询无法再分块读取，因此不做相应配置。</p>
+ *
+ * <p>正文哈希与正文列在同一条语句中读取，ETag 由这一行计算后先于正文交给调用方，保证响应头与正文一致。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleBodyStreamer {
+  private final JdbcTemplate jdbcTemplate;
+
+  public void write(Long articleId, ArticleBodyFormat format, OutputStream out, Consumer<String> etagSink)
+      throws IOException {
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    try {
+      jdbcTemplate.query(
+          "select content_hash, updated_at, " + format.getColumn() + " from articles where id = ?",
+          rs -> {
+            etagSink.accept(format.etag(rs.getString(1), rs.getObject(2, LocalDateTime.class)));
+            try (Reader reader = rs.getCharacterStream(3)) {
+              if (reader != null) {
+                reader.transferTo(writer);
+              }
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          },
+          articleId);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+  }
+}
@@ -0,0 +1,15 @@
+package com.guoguo.blog.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文章变更事件
+ *
+ * <p>文章创建、更新、删除后发布，供搜索索引等派生数据在事务提交后增量刷新。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleChangedEvent {
+  private final Long articleId;
+}
@@ -0,0 +1,144 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.entity.ArticleStatus;
+import com.guoguo.blog.backend.entity.ArticleVisibility;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 标签、分类文章数增量维护
+ *
+ * <p>文章的状态、可见性、分类或标签变化时，按变化前后是否计入为对应标签与分类记录 +1/-1。同一事务内按ID合并，
+ * 提交前按ID升序批量写入 article_count（不低于 0），与文章写入同事务。写入后发布 {@link ArticleCountsChangedEvent}，
+ * 标签字典与分类树快照在提交后只刷新受影响条目的文章数，不整体重载，也不失效文章详情缓存。
+ * 计入条件与公开列表一致：已发布且公开。</p>
+ */
+@Component
+public class ArticleCountDeltaBuffer {
+  private static final String UPDATE_TAGS_SQL =
+      "update tags set article_count = greatest(coalesce(article_count, 0) + ?, 0) where id = ?";
+  private static final String UPDATE_CATEGORIES_SQL =
+      "update categories set article_count = greatest(coalesce(article_count, 0) + ?, 0) where id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public ArticleCountDeltaBuffer(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public static boolean counted(ArticleStatus status, ArticleVisibility visibility) {
+    return status == ArticleStatus.PUBLISHED && visibility == ArticleVisibility.PUBLIC;
+  }
+
+  public void recordTransition(State before, State after) {
+    Deltas change = new Deltas();
+    change.add(before, -1);
+    change.add(after, 1);
+    change.removeZeros();
+    if (change.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      write(change);
+      publish(change);
+      return;
+    }
+    Deltas pending = (Deltas) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Deltas deltas = new Deltas();
+      TransactionSynchronizationManager.bindResource(this, deltas);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+              deltas.removeZeros();
+              write(deltas);
+              publish(deltas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(ArticleCountDeltaBuffer.this);
+            }
+          });
+      pending = deltas;
+    }
+    pending.merge(change);
+  }
+
+  private void write(Deltas deltas) {
+    if (!deltas.tags.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPDATE_TAGS_SQL, toArgs(deltas.tags));
+    }
+    if (!deltas.categories.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPDATE_CATEGORIES_SQL, toArgs(deltas.categories));
+    }
+  }
+
+  /** 事务内发布时监听器在提交后执行 */
+  private void publish(Deltas deltas) {
+    if (!deltas.isEmpty()) {
+      eventPublisher.publishEvent(
+          new ArticleCountsChangedEvent(Set.copyOf(deltas.tags.keySet()), Set.copyOf(deltas.categories.keySet())));
+    }
+  }
+
+  private static List<Object[]> toArgs(Map<Long, Integer> deltas) {
+    List<Object[]> args = new ArrayList<>(deltas.size());
+    deltas.forEach((id, delta) -> args.add(new Object[] {delta, id}));
+    return args;
+  }
+
+  /**
+   * 文章在某一时刻与计数相关的状态。
+   */
+  public record State(boolean counted, Long categoryId, Set<Long> tagIds) {
+    public static final State NONE = new State(false, null, Set.of());
+
+    public static State of(ArticleStatus status, ArticleVisibility visibility, Long categoryId, Collection<Long> tagIds) {
+      return new State(ArticleCountDeltaBuffer.counted(status, visibility), categoryId, tagIds == null ? Set.of() : Set.copyOf(tagIds));
+    }
+  }
+
+  private static final class Deltas {
+    private final Map<Long, Integer> tags = new TreeMap<>();
+    private final Map<Long, Integer> categories = new TreeMap<>();
+
+    void add(State state, int sign) {
+      if (!state.counted()) {
+        return;
+      }
+      if (state.categoryId() != null) {
+        categories.merge(state.categoryId(), sign, Integer::sum);
+      }
+      for (Long tagId : state.tagIds()) {
+        tags.merge(tagId, sign, Integer::sum);
+      }
+    }
+
+    void merge(Deltas other) {
+      other.tags.forEach((id, delta) -> tags.merge(id, delta, Integer::sum));
+      other.categories.forEach((id, delta) -> categories.merge(id, delta, Integer::sum));
+    }
+
+    void removeZeros() {
+      tags.values().removeIf(delta -> delta == 0);
+      categories.values().removeIf(delta -> delta == 0);
+    }
+
+    boolean isEmpty() {
+      return tags.isEmpty() && categories.isEmpty();
+    }
+  }
+}
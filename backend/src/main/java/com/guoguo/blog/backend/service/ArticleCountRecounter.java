@@ -0,0 +1,142 @@
+package com.guoguo.blog.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 标签、分类文章数全量校正
+ *
+ * <p>按主键区间分块，每块先查出 article_count 与关联表统计不一致的行，再只对这些行按关联表重新统计并更新，
+ * 多块并行执行、各自提交，单块锁定时间短。用于修复历史数据或增量维护的偏差；与增量写入并发时可能留下个别偏差，
+ * 下次校正时修复。校正后只针对实际变化的标签与分类发布 {@link ArticleCountsChangedEvent}，无偏差时不触发任何刷新。
+ * 默认只按 cron 定时执行，启动时校正需显式开启 {@code app.article.counters.recount-on-startup}。</p>
+ */
+@Slf4j
+@Component
+public class ArticleCountRecounter {
+  private static final String COUNTED = "a.status = 'PUBLISHED' and a.visibility = 'PUBLIC'";
+  private static final Map<String, String> COUNT_SQL =
+      Map.of(
+          "tags",
+          "(select count(*) from article_tags at join articles a on a.id = at.article_id "
+              + "where at.tag_id = tags.id and " + COUNTED + ")",
+          "categories",
+          "(select count(*) from articles a where a.category_id = categories.id and " + COUNTED + ")");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int chunkSize;
+  private final int parallelism;
+  private final boolean recountOnStartup;
+
+  public ArticleCountRecounter(
+      JdbcTemplate jdbcTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${app.article.counters.recount-chunk-size:500}") int chunkSize,
+      @Value("${app.article.counters.recount-parallelism:4}") int parallelism,
+      @Value("${app.article.counters.recount-on-startup:false}") boolean recountOnStartup) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.chunkSize = Math.max(chunkSize, 1);
+    this.parallelism = Math.max(parallelism, 1);
+    this.recountOnStartup = recountOnStartup;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void recountOnStartup() {
+    if (recountOnStartup) {
+      recountAll();
+    }
+  }
+
+  @Scheduled(cron = "${app.article.counters.recount-cron:0 30 4 * * *}")
+  public void recountAll() {
+    long started = System.currentTimeMillis();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    Set<Long> tagIds = new HashSet<>();
+    Set<Long> categoryIds = new HashSet<>();
+    try {
+      recount(executor, "tags", tagIds);
+      recount(executor, "categories", categoryIds);
+      log.info(
+          "article_counts_recounted: tags={}, categories={}, elapsedMs={}",
+          tagIds.size(),
+          categoryIds.size(),
+          System.currentTimeMillis() - started);
+    } catch (RuntimeException e) {
+      log.warn("article_counts_recount_failed", e);
+    } finally {
+      executor.shutdown();
+    }
+    if (!tagIds.isEmpty() || !categoryIds.isEmpty()) {
+      eventPublisher.publishEvent(new ArticleCountsChangedEvent(tagIds, categoryIds));
+    }
+  }
+
+  /**
+   * 校正一张表，把实际更新的行ID加入 {@code changed}；某块失败时仍收集其余块的结果，最后抛出首个失败。
+   */
+  private void recount(ExecutorService executor, String table, Set<Long> changed) {
+    Map<String, Object> range = jdbcTemplate.queryForMap("select min(id) as min_id, max(id) as max_id from " + table);
+    if (range.get("min_id") == null) {
+      return;
+    }
+    long min = ((Number) range.get("min_id")).longValue();
+    long max = ((Number) range.get("max_id")).longValue();
+    List<Future<List<Long>>> chunks = new ArrayList<>();
+    for (long from = min; from <= max; from += chunkSize) {
+      long lower = from;
+      long upper = Math.min(from + chunkSize - 1, max);
+      chunks.add(executor.submit(() -> recountChunk(table, lower, upper)));
+    }
+    RuntimeException failure = null;
+    for (Future<List<Long>> chunk : chunks) {
+      try {
+        changed.addAll(chunk.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("article_counts_recount_interrupted", e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = new IllegalStateException("article_counts_recount_failed: table=" + table, e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private List<Long> recountChunk(String table, long lower, long upper) {
+    String count = COUNT_SQL.get(table);
+    List<Long> drifted =
+        jdbcTemplate.queryForList(
+            "select id from " + table + " where id between ? and ? and coalesce(article_count, -1) <> " + count,
+            Long.class,
+            lower,
+            upper);
+    if (drifted.isEmpty()) {
+      return drifted;
+    }
+    String placeholders = String.join(",", Collections.nCopies(drifted.size(), "?"));
+    jdbcTemplate.update(
+        "update " + table + " set article_count = " + count + " where id in (" + placeholders + ")", drifted.toArray());
+    return drifted;
+  }
+}
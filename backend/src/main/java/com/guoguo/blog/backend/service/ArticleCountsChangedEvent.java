@@ -0,0 +1,17 @@
+package com.guoguo.blog.backend.service;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 标签、分类文章数变更事件
+ *
+ * <p>文章数增量写入或全量校正后发布，携带受影响的标签与分类ID，供标签字典与分类树快照在事务提交后只刷新这些条目的文章数。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleCountsChangedEvent {
+  private final Set<Long> tagIds;
+  private final Set<Long> categoryIds;
+}
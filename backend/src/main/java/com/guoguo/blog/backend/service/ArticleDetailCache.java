@@ -0,0 +1,123 @@
+package com.guoguo.blog.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guoguo.blog.backend.dto.ArticleResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 文章详情缓存
+ *
+ * <p>只缓存与访问者无关的部分（不含 liked/collected 与实时计数）。一级为进程内 Caffeine 缓存，按文章ID存放并用
+ * {@code updatedAt} 校验版本；二级为可选的共享缓存（Spring {@link CacheManager}），键为 {@code id:version}。</p>
+ *
+ * <p>作者昵称/头像、分类名与标签名不随文章 {@code updatedAt} 变化，用户、分类、标签变更提交后只逐出引用了对应ID的
+ * 本地条目。共享缓存中的条目不一定在本地，不能靠本地条目定位：用户变更按作者查出其文章的当前版本逐出对应键；
+ * 分类、标签变更（低频的管理操作，删除后已无法按关联查出受影响文章）直接清空共享缓存。</p>
+ */
+@Component
+public class ArticleDetailCache {
+  public static final String SHARED_CACHE_NAME = "articleDetail";
+
+  private final Cache<Long, ArticleResponse> local;
+  private final org.springframework.cache.Cache shared;
+  private final JdbcTemplate jdbcTemplate;
+
+  public ArticleDetailCache(
+      MeterRegistry meterRegistry,
+      JdbcTemplate jdbcTemplate,
+      ObjectProvider<CacheManager> cacheManagerProvider,
+      @Value("${app.article.detail-cache.max-size:2000}") long maxSize,
+      @Value("${app.article.detail-cache.ttl:10m}") Duration ttl,
+      @Value("${app.article.detail-cache.shared-enabled:false}") boolean sharedEnabled) {
+    this.local = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, local, "articleDetail");
+    CacheManager cacheManager = sharedEnabled ? cacheManagerProvider.getIfAvailable() : null;
+    this.shared = cacheManager == null ? null : cacheManager.getCache(SHARED_CACHE_NAME);
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public ArticleResponse get(Long articleId, LocalDateTime version) {
+    ArticleResponse cached = local.getIfPresent(articleId);
+    if (cached != null && Objects.equals(cached.getUpdatedAt(), version)) {
+      return cached;
+    }
+    if (shared == null) {
+      return null;
+    }
+    ArticleResponse fromShared = shared.get(sharedKey(articleId, version), ArticleResponse.class);
+    if (fromShared != null) {
+      local.put(articleId, fromShared);
+    }
+    return fromShared;
+  }
+
+  public void put(ArticleResponse response) {
+    local.put(response.getId(), response);
+    if (shared != null) {
+      shared.put(sharedKey(response.getId(), response.getUpdatedAt()), response);
+    }
+  }
+
+  public void evict(Long articleId) {
+    ArticleResponse previous = local.asMap().remove(articleId);
+    if (shared != null && previous != null) {
+      shared.evict(sharedKey(articleId, previous.getUpdatedAt()));
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    evictLocalIf(response -> response.getAuthor() != null && Objects.equals(response.getAuthor().getId(), event.getUserId()));
+    if (shared != null) {
+      jdbcTemplate.query(
+          "select id, updated_at from articles where user_id = ?",
+          rs -> {
+            shared.evict(sharedKey(rs.getLong("id"), rs.getObject("updated_at", LocalDateTime.class)));
+          },
+          event.getUserId());
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    evictLocalIf(
+        response ->
+            response.getTags() != null
+                && response.getTags().stream().anyMatch(tag -> Objects.equals(tag.getId(), event.getTagId())));
+    if (shared != null) {
+      shared.clear();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    evictLocalIf(
+        response -> response.getCategory() != null && event.getCategoryIds().contains(response.getCategory().getId()));
+    if (shared != null) {
+      shared.clear();
+    }
+  }
+
+  private void evictLocalIf(Predicate<ArticleResponse> affected) {
+    local.asMap().values().removeIf(affected);
+  }
+
+  private String sharedKey(Long articleId, LocalDateTime version) {
+    long millis = version == null ? 0L : version.toInstant(ZoneOffset.UTC).toEpochMilli();
+    return articleId + ":" + millis;
+  }
+}
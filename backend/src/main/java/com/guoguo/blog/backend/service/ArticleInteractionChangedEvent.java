@@ -0,0 +1,30 @@
+package com.guoguo.blog.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文章点赞、收藏变更事件
+ *
+ * <p>点赞/收藏实际新增或取消后发布，供热度计算在事务提交后累加，回滚的操作不计入热度。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class ArticleInteractionChangedEvent {
+  private final Long articleId;
+  private final Kind kind;
+  private final boolean added;
+
+  public static ArticleInteractionChangedEvent like(Long articleId, boolean added) {
+    return new ArticleInteractionChangedEvent(articleId, Kind.LIKE, added);
+  }
+
+  public static ArticleInteractionChangedEvent collect(Long articleId, boolean added) {
+    return new ArticleInteractionChangedEvent(articleId, Kind.COLLECT, added);
+  }
+
+  public enum Kind {
+    LIKE,
+    COLLECT
+  }
+}
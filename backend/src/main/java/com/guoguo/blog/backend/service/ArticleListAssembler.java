@@ -0,0 +1,167 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.dto.ArticleListItem;
+import com.guoguo.blog.backend.dto.CategoryDTO;
+import com.guoguo.blog.backend.dto.TagDTO;
+import com.guoguo.blog.backend.dto.UserDTO;
+import com.guoguo.blog.backend.entity.ArticleTag;
+import com.guoguo.blog.backend.entity.Category;
+import com.guoguo.blog.backend.entity.Tag;
+import com.guoguo.blog.backend.entity.User;
+import com.guoguo.blog.backend.entity.UserRole;
+import com.guoguo.blog.backend.repository.ArticleListRow;
+import com.guoguo.blog.backend.repository.ArticleTagRepository;
+import com.guoguo.blog.backend.repository.CategoryRepository;
+import com.guoguo.blog.backend.repository.UserRepository;
+import com.guoguo.blog.backend.repository.UserRoleRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章列表项组装
+ *
+ * <p>将一页 {@link ArticleListRow} 转换为 {@link ArticleListItem}。标签、作者、作者角色、分类各用一条批量查询加载，
+ * 每页语句数与页大小无关。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleListAssembler {
+  private final ArticleTagRepository articleTagRepository;
+  private final UserRepository userRepository;
+  private final UserRoleRepository userRoleRepository;
+  private final CategoryRepository categoryRepository;
+
+  public List<ArticleListItem> toListItems(List<ArticleListRow> rows) {
+    if (rows == null || rows.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<Long, List<TagDTO>> tagsMap = loadTagsMap(rows);
+    Map<Long, UserDTO> authors = loadAuthors(rows);
+    Map<Long, CategoryDTO> categories = loadCategories(rows);
+    return rows.stream()
+        .map(
+            r ->
+                toListItem(
+                    r,
+                    tagsMap.getOrDefault(r.getId(), List.of()),
+                    authors.get(r.getAuthorId()),
+                    r.getCategoryId() == null ? null : categories.get(r.getCategoryId())))
+        .collect(Collectors.toList());
+  }
+
+  public TagDTO toTagDTO(Tag tag) {
+    return TagDTO.builder()
+        .id(tag.getId())
+        .name(tag.getName())
+        .slug(tag.getSlug())
+        .description(tag.getDescription())
+        .icon(tag.getIcon())
+        .color(tag.getColor())
+        .articleCount(tag.getArticleCount())
+        .recommended(tag.getRecommended())
+        .createdAt(tag.getCreatedAt())
+        .build();
+  }
+
+  public CategoryDTO toCategoryDTO(Category category) {
+    if (category == null) {
+      return null;
+    }
+    return CategoryDTO.builder()
+        .id(category.getId())
+        .name(category.getName())
+        .slug(category.getSlug())
+        .description(category.getDescription())
+        .icon(category.getIcon())
+        .color(category.getColor())
+        .sortOrder(category.getSortOrder())
+        .parentId(category.getParent() == null ? null : category.getParent().getId())
+        .level(category.getLevel())
+        .articleCount(category.getArticleCount())
+        .system(category.getSystem())
+        .enabled(category.getEnabled())
+        .createdAt(category.getCreatedAt())
+        .build();
+  }
+
+  public UserDTO toAuthorDTO(User user) {
+    List<String> roles = user.getRoles() == null ? List.of() : user.getRoles().stream().map(r -> r.getRoleCode()).toList();
+    return toAuthorDTO(user, roles);
+  }
+
+  private ArticleListItem toListItem(ArticleListRow a, List<TagDTO> tags, UserDTO author, CategoryDTO category) {
+    return ArticleListItem.builder()
+        .id(a.getId())
+        .title(a.getTitle())
+        .slug(a.getSlug())
+        .coverImage(a.getCoverImage())
+        .summary(a.getSummary())
+        .status(a.getStatus().name())
+        .visibility(a.getVisibility().name())
+        .author(author)
+        .category(category)
+        .tags(tags)
+        .viewCount(a.getViewCount())
+        .likeCount(a.getLikeCount())
+        .commentCount(a.getCommentCount())
+        .publishedAt(a.getPublishedAt())
+        .createdAt(a.getCreatedAt())
+        .build();
+  }
+
+  private Map<Long, List<TagDTO>> loadTagsMap(List<ArticleListRow> rows) {
+    List<Long> articleIds = rows.stream().map(ArticleListRow::getId).collect(Collectors.toList());
+    List<ArticleTag> articleTags = articleTagRepository.findWithTagByArticleIdIn(articleIds);
+    Map<Long, List<TagDTO>> map = new HashMap<>();
+    for (ArticleTag at : articleTags) {
+      map.computeIfAbsent(at.getArticle().getId(), k -> new ArrayList<>()).add(toTagDTO(at.getTag()));
+    }
+    return map;
+  }
+
+  private Map<Long, UserDTO> loadAuthors(List<ArticleListRow> rows) {
+    Set<Long> authorIds = rows.stream().map(ArticleListRow::getAuthorId).collect(Collectors.toSet());
+    Map<Long, List<String>> roles = new HashMap<>();
+    for (UserRole role : userRoleRepository.findByUser_IdIn(authorIds)) {
+      roles.computeIfAbsent(role.getUser().getId(), k -> new ArrayList<>()).add(role.getRoleCode());
+    }
+    Map<Long, UserDTO> map = new HashMap<>();
+    for (User user : userRepository.findAllById(authorIds)) {
+      map.put(user.getId(), toAuthorDTO(user, roles.getOrDefault(user.getId(), List.of())));
+    }
+    return map;
+  }
+
+  private Map<Long, CategoryDTO> loadCategories(List<ArticleListRow> rows) {
+    Set<Long> categoryIds =
+        rows.stream().map(ArticleListRow::getCategoryId).filter(Objects::nonNull).collect(Collectors.toSet());
+    if (categoryIds.isEmpty()) {
+      return Map.of();
+    }
+    Map<Long, CategoryDTO> map = new HashMap<>();
+    for (Category category : categoryRepository.findAllById(categoryIds)) {
+      map.put(category.getId(), toCategoryDTO(category));
+    }
+    return map;
+  }
+
+  private UserDTO toAuthorDTO(User user, List<String> roles) {
+    return UserDTO.builder()
+        .id(user.getId())
+        .username(user.getUsername())
+        .email(user.getEmail())
+        .displayName(user.getDisplayName())
+        .avatarUrl(user.getAvatarUrl())
+        .bio(user.getBio())
+        .roles(roles)
+        .createdAt(user.getCreatedAt())
+        .build();
+  }
+}
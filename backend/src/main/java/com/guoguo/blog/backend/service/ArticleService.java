@@ -1,11 +1,15 @@
 package com.guoguo.blog.backend.service;
 
+import com.guoguo.blog.backend.dto.ArticleInteractionResponse;
 import com.guoguo.blog.backend.dto.ArticleListItem;
 import com.guoguo.blog.backend.dto.ArticleRequest;
 import com.guoguo.blog.backend.dto.ArticleResponse;
 import com.guoguo.blog.backend.dto.ArticleViewRequest;
 import com.guoguo.blog.backend.dto.PageResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ArticleService {
   ArticleResponse createArticle(Long userId, ArticleRequest request);
@@ -14,7 +18,22 @@ public interface ArticleService {
 
   void deleteArticle(Long userId, Long articleId);
 
-  ArticleResponse getArticleDetail(Long viewerUserId, Long articleId);
+  /**
+   * 获取文章详情；{@code includeBody} 为 false 时不返回 content 与 htmlContent。
+   */
+  ArticleResponse getArticleDetail(Long viewerUserId, Long articleId, boolean includeBody);
+
+  /**
+   * 校验访问权限并返回正文的 ETag（正文哈希 + 格式）。
+   */
+  String getArticleBodyETag(Long viewerUserId, Long articleId, ArticleBodyFormat format);
+
+  /**
+   * 将正文列直接从结果集分段写出（不经实体与 JSON），调用前须已通过 {@link #getArticleBodyETag} 校验权限。
+   * 写出前以所读行计算的 ETag 回调 {@code etagSink}，两次读取之间正文被更新时据此更正响应头。
+   */
+  void writeArticleBody(Long articleId, ArticleBodyFormat format, OutputStream out, Consumer<String> etagSink)
+      throws IOException;
 
   PageResponse<ArticleListItem> listArticles(
       Long viewerUserId,
@@ -28,6 +47,21 @@ public interface ArticleService {
       Long userId,
       String keyword);
 
+  /**
+   * 游标分页（keyset）查询文章列表，按 (排序字段, id) 定位下一页，不统计总数；排序字段为空的文章不返回。
+   */
+  PageResponse<ArticleListItem> listArticlesByCursor(
+      Long viewerUserId,
+      String cursor,
+      int size,
+      String sortBy,
+      String order,
+      String status,
+      Long categoryId,
+      Long tagId,
+      Long userId,
+      String keyword);
+
   PageResponse<ArticleListItem> listDrafts(Long userId, int page, int size);
 
   List<ArticleListItem> trending(int limit);
@@ -36,9 +70,9 @@ public interface ArticleService {
 
   List<ArticleListItem> related(Long viewerUserId, Long articleId, int limit);
 
-  ArticleResponse toggleLike(Long userId, Long articleId);
+  ArticleInteractionResponse toggleLike(Long userId, Long articleId);
 
-  ArticleResponse toggleCollect(Long userId, Long articleId);
+  ArticleInteractionResponse toggleCollect(Long userId, Long articleId);
 
   void recordView(Long viewerUserId, Long articleId, ArticleViewRequest request);
 }
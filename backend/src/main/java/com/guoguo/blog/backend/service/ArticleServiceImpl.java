@@ -1,20 +1,14 @@
 package com.guoguo.blog.backend.service;
 
+import com.guoguo.blog.backend.dto.ArticleInteractionResponse;
 import com.guoguo.blog.backend.dto.ArticleListItem;
 import com.guoguo.blog.backend.dto.ArticleRequest;
 import com.guoguo.blog.backend.dto.ArticleResponse;
 import com.guoguo.blog.backend.dto.ArticleViewRequest;
-import com.guoguo.blog.backend.dto.CategoryDTO;
 import com.guoguo.blog.backend.dto.PageResponse;
-import com.guoguo.blog.backend.dto.TagDTO;
-import com.guoguo.blog.backend.dto.UserDTO;
 import com.guoguo.blog.backend.entity.Article;
-import com.guoguo.blog.backend.entity.ArticleCollection;
-import com.guoguo.blog.backend.entity.ArticleLike;
-import com.guoguo.blog.backend.entity.ArticleReadHistory;
 import com.guoguo.blog.backend.entity.ArticleStatus;
 import com.guoguo.blog.backend.entity.ArticleTag;
-import com.guoguo.blog.backend.entity.ArticleTag;
 import com.guoguo.blog.backend.entity.ArticleVisibility;
 import com.guoguo.blog.backend.entity.Category;
 import com.guoguo.blog.backend.entity.Tag;
@@ -22,50 +16,89 @@ import com.guoguo.blog.backend.entity.User;
 import com.guoguo.blog.backend.exception.BusinessException;
 import com.guoguo.blog.backend.repository.ArticleCollectionRepository;
 import com.guoguo.blog.backend.repository.ArticleLikeRepository;
-import com.guoguo.blog.backend.repository.ArticleReadHistoryRepository;
+import com.guoguo.blog.backend.repository.ArticleListRow;
 import com.guoguo.blog.backend.repository.ArticleRepository;
+import com.guoguo.blog.backend.repository.ArticleSpecifications;
+import com.guoguo.blog.backend.repository.ArticleStateView;
 import com.guoguo.blog.backend.repository.ArticleTagRepository;
 import com.guoguo.blog.backend.repository.CategoryRepository;
 import com.guoguo.blog.backend.repository.TagRepository;
 import com.guoguo.blog.backend.repository.UserRepository;
+import com.guoguo.blog.backend.search.ArticleSearchFilter;
+import com.guoguo.blog.backend.search.ArticleSearchHit;
+import com.guoguo.blog.backend.search.ArticleSearchIndex;
+import com.guoguo.blog.backend.search.ArticleSearchResult;
+import com.guoguo.blog.backend.search.RelatedArticleIndex;
+import com.guoguo.blog.backend.util.CursorCodec;
 import com.guoguo.blog.backend.util.MarkdownUtil;
 import com.guoguo.blog.backend.util.SlugUtil;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ArticleServiceImpl implements ArticleService {
+  private static final int SLUG_ATTEMPTS = 3;
+  private static final String RELEVANCE_SORT = "relevance";
+
   private final ArticleRepository articleRepository;
   private final ArticleTagRepository articleTagRepository;
   private final ArticleLikeRepository articleLikeRepository;
   private final ArticleCollectionRepository articleCollectionRepository;
-  private final ArticleReadHistoryRepository articleReadHistoryRepository;
+  private final ReadHistoryIngestor readHistoryIngestor;
   private final CategoryRepository categoryRepository;
   private final TagRepository tagRepository;
   private final UserRepository userRepository;
+  private final ArticleViewCounter articleViewCounter;
+  private final ArticleDetailCache articleDetailCache;
+  private final ArticleListAssembler articleListAssembler;
+  private final TrendingEngine trendingEngine;
+  private final TrendingArticleSnapshot trendingArticleSnapshot;
+  private final RelatedArticleIndex relatedArticleIndex;
+  private final ArticleSearchIndex articleSearchIndex;
+  private final MarkdownRenderService markdownRenderService;
+  private final ArticleBodyStreamer articleBodyStreamer;
+  private final ArticleCountDeltaBuffer articleCountDeltaBuffer;
+  private final ArticleSlugAllocator articleSlugAllocator;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public ArticleResponse createArticle(Long userId, ArticleRequest request) {
+    MarkdownRenderService.Rendered rendered = markdownRenderService.render(request.getContent());
+    return withSlugRetry(() -> transactionTemplate.execute(tx -> insertArticle(userId, request, rendered)));
+  }
+
+  private ArticleResponse insertArticle(Long userId, ArticleRequest request, MarkdownRenderService.Rendered rendered) {
     User author = userRepository.findById(userId).orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
     Category category = resolveCategory(request.getCategoryId());
 
@@ -73,10 +106,7 @@ public class ArticleServiceImpl implements ArticleService {
     ArticleVisibility visibility = resolveVisibility(request.getVisibility());
     String slug = resolveUniqueSlug(null, request.getSlug(), request.getTitle());
 
-    String summary = request.getSummary();
-    if (!StringUtils.hasText(summary)) {
-      summary = MarkdownUtil.extractSummary(request.getContent(), 120);
-    }
+    String summary = StringUtils.hasText(request.getSummary()) ? request.getSummary() : rendered.summary();
 
     Article article =
         Article.builder()
@@ -86,7 +116,10 @@ public class ArticleServiceImpl implements ArticleService {
             .coverImage(request.getCoverImage())
             .summary(summary)
             .content(request.getContent())
-            .htmlContent(MarkdownUtil.toHtml(request.getContent()))
+            .htmlContent(rendered.html())
+            .contentHash(rendered.contentHash())
+            .tocJson(rendered.tocJson())
+            .wordCount(rendered.wordCount())
             .status(status)
             .visibility(visibility)
             .password(request.getPassword())
@@ -97,12 +130,27 @@ public class ArticleServiceImpl implements ArticleService {
             .build();
 
     article = articleRepository.save(article);
-    saveTags(article, request.getTagIds());
-    return getArticleDetail(userId, article.getId());
+    List<Tag> tags = saveTags(article, request.getTagIds(), Set.of());
+    articleCountDeltaBuffer.recordTransition(
+        ArticleCountDeltaBuffer.State.NONE, countState(article, tags.stream().map(Tag::getId).toList()));
+    eventPublisher.publishEvent(new ArticleChangedEvent(article.getId()));
+    return toArticleResponse(article, tags, false, false);
   }
 
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public ArticleResponse updateArticle(Long userId, Long articleId, ArticleRequest request) {
+    ArticleStateView state =
+        articleRepository.findStateById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+    if (!Objects.equals(state.getAuthorId(), userId)) {
+      throw new BusinessException("FORBIDDEN", "无权操作该文章");
+    }
+    MarkdownRenderService.Rendered rendered = markdownRenderService.renderIfChanged(request.getContent(), state.getContentHash());
+    return withSlugRetry(() -> transactionTemplate.execute(tx -> applyUpdate(userId, articleId, request, rendered)));
+  }
+
+  private ArticleResponse applyUpdate(
+      Long userId, Long articleId, ArticleRequest request, MarkdownRenderService.Rendered rendered) {
     Article article = articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
     if (!Objects.equals(article.getAuthor().getId(), userId)) {
       throw new BusinessException("FORBIDDEN", "无权操作该文章");
@@ -110,28 +158,47 @@ public class ArticleServiceImpl implements ArticleService {
     if (article.getStatus() == ArticleStatus.DELETED) {
       throw new BusinessException("ARTICLE_DELETED", "文章已删除");
     }
+    Set<Long> existingTagIds = new HashSet<>(articleTagRepository.findTagIdsByArticleId(articleId));
+    ArticleCountDeltaBuffer.State before = countState(article, existingTagIds);
 
     Category category = resolveCategory(request.getCategoryId());
     ArticleStatus status = resolveStatus(request.getStatus());
     ArticleVisibility visibility = resolveVisibility(request.getVisibility());
-    String slug = resolveUniqueSlug(articleId, request.getSlug(), request.getTitle());
+    // 未指定 slug 且标题未变时沿用原 slug，避免生成规则调整后编辑导致链接变化
+    String slug =
+        !StringUtils.hasText(request.getSlug()) && Objects.equals(article.getTitle(), request.getTitle())
+            ? article.getSlug()
+            : resolveUniqueSlug(articleId, request.getSlug(), request.getTitle());
 
     article.setTitle(request.getTitle());
     article.setSlug(slug);
     article.setCoverImage(request.getCoverImage());
     article.setContent(request.getContent());
-    article.setHtmlContent(MarkdownUtil.toHtml(request.getContent()));
+    if (rendered == null && !Objects.equals(article.getContentHash(), MarkdownRenderService.hash(request.getContent()))) {
+      // 读取状态后有并发更新改了正文：按本次提交的正文重新渲染，避免正文与 html、哈希、目录不一致
+      rendered = markdownRenderService.render(request.getContent());
+    }
+    if (rendered != null) {
+      article.setHtmlContent(rendered.html());
+      article.setContentHash(rendered.contentHash());
+      article.setTocJson(rendered.tocJson());
+      article.setWordCount(rendered.wordCount());
+    }
     article.setVisibility(visibility);
     article.setPassword(request.getPassword());
     article.setPrice(defaultPrice(request.getPrice()));
     article.setCategory(category);
     article.setScheduledAt(request.getScheduledAt());
 
-    String summary = request.getSummary();
-    if (!StringUtils.hasText(summary)) {
-      summary = MarkdownUtil.extractSummary(request.getContent(), 120);
+    if (StringUtils.hasText(request.getSummary())) {
+      article.setSummary(request.getSummary());
+    } else {
+      // 正文未变时只扫描摘要所需的开头部分，不重新渲染
+      article.setSummary(
+          rendered != null
+              ? rendered.summary()
+              : MarkdownUtil.extractSummary(request.getContent(), MarkdownRenderService.SUMMARY_LENGTH));
     }
-    article.setSummary(summary);
 
     ArticleStatus oldStatus = article.getStatus();
     article.setStatus(status);
@@ -139,9 +206,15 @@ public class ArticleServiceImpl implements ArticleService {
       article.setPublishedAt(LocalDateTime.now());
     }
 
-    articleRepository.save(article);
-    saveTags(article, request.getTagIds());
-    return getArticleDetail(userId, articleId);
+    article.setUpdatedAt(LocalDateTime.now());
+    article = articleRepository.saveAndFlush(article);
+    List<Tag> tags = saveTags(article, request.getTagIds(), existingTagIds);
+    articleCountDeltaBuffer.recordTransition(before, countState(article, tags.stream().map(Tag::getId).toList()));
+    articleDetailCache.evict(articleId);
+    eventPublisher.publishEvent(new ArticleChangedEvent(articleId));
+    boolean liked = articleLikeRepository.existsByArticle_IdAndUser_Id(articleId, userId);
+    boolean collected = articleCollectionRepository.existsByArticle_IdAndUser_Id(articleId, userId);
+    return toArticleResponse(article, tags, liked, collected);
   }
 
   @Override
@@ -150,57 +223,65 @@ public class ArticleServiceImpl implements ArticleService {
     if (!Objects.equals(article.getAuthor().getId(), userId)) {
       throw new BusinessException("FORBIDDEN", "无权删除该文章");
     }
+    if (ArticleCountDeltaBuffer.counted(article.getStatus(), article.getVisibility())) {
+      articleCountDeltaBuffer.recordTransition(
+          countState(article, articleTagRepository.findTagIdsByArticleId(articleId)), ArticleCountDeltaBuffer.State.NONE);
+    }
     article.setStatus(ArticleStatus.DELETED);
     article.setDeletedAt(LocalDateTime.now());
+    article.setUpdatedAt(article.getDeletedAt());
     articleRepository.save(article);
+    articleDetailCache.evict(articleId);
+    eventPublisher.publishEvent(new ArticleChangedEvent(articleId));
   }
 
   @Override
   @Transactional(readOnly = true)
-  public ArticleResponse getArticleDetail(Long viewerUserId, Long articleId) {
-    Article article = articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
-    if (article.getStatus() == ArticleStatus.DELETED) {
-      throw new BusinessException("ARTICLE_DELETED", "文章已删除");
-    }
-    if (!canViewArticle(viewerUserId, article)) {
-      throw new BusinessException("FORBIDDEN", "无权访问该文章");
-    }
-
-    List<Long> tagIds = articleTagRepository.findTagIdsByArticleId(articleId);
-    List<Tag> tags = tagIds.isEmpty() ? List.of() : tagRepository.findAllById(tagIds);
+  public ArticleResponse getArticleDetail(Long viewerUserId, Long articleId, boolean includeBody) {
+    ArticleStateView state = loadViewableState(viewerUserId, articleId);
 
-    Boolean liked = false;
-    Boolean collected = false;
-    if (viewerUserId != null) {
-      liked = articleLikeRepository.findByArticle_IdAndUser_Id(articleId, viewerUserId).isPresent();
-      collected = articleCollectionRepository.findByArticle_IdAndUser_Id(articleId, viewerUserId).isPresent();
+    ArticleResponse base = articleDetailCache.get(articleId, state.getUpdatedAt());
+    if (base == null) {
+      Article article =
+          articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+      List<Long> tagIds = articleTagRepository.findTagIdsByArticleId(articleId);
+      List<Tag> tags = tagIds.isEmpty() ? List.of() : tagRepository.findAllById(tagIds);
+      base = toArticleResponse(article, tags, false, false);
+      articleDetailCache.put(base);
     }
 
-    return ArticleResponse.builder()
-        .id(article.getId())
-        .title(article.getTitle())
-        .slug(article.getSlug())
-        .coverImage(article.getCoverImage())
-        .summary(article.getSummary())
-        .content(article.getContent())
-        .htmlContent(article.getHtmlContent())
-        .status(article.getStatus().name())
-        .visibility(article.getVisibility().name())
-        .category(toCategoryDTO(article.getCategory()))
-        .tags(tags.stream().map(this::toTagDTO).collect(Collectors.toList()))
-        .author(toAuthorDTO(article.getAuthor()))
-        .viewCount(article.getViewCount())
-        .likeCount(article.getLikeCount())
-        .collectCount(article.getCollectCount())
-        .commentCount(article.getCommentCount())
-        .publishedAt(article.getPublishedAt())
-        .createdAt(article.getCreatedAt())
-        .updatedAt(article.getUpdatedAt())
+    boolean liked = false;
+    boolean collected = false;
+    if (viewerUserId != null) {
+      liked = articleLikeRepository.existsByArticle_IdAndUser_Id(articleId, viewerUserId);
+      collected = articleCollectionRepository.existsByArticle_IdAndUser_Id(articleId, viewerUserId);
+    }
+    return base.toBuilder()
+        .viewCount((state.getViewCount() == null ? 0L : state.getViewCount()) + articleViewCounter.pendingDelta(articleId))
+        .likeCount(state.getLikeCount())
+        .collectCount(state.getCollectCount())
+        .commentCount(state.getCommentCount())
         .liked(liked)
         .collected(collected)
+        .content(includeBody ? base.getContent() : null)
+        .htmlContent(includeBody ? base.getHtmlContent() : null)
         .build();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public String getArticleBodyETag(Long viewerUserId, Long articleId, ArticleBodyFormat format) {
+    ArticleStateView state = loadViewableState(viewerUserId, articleId);
+    return format.etag(state.getContentHash(), state.getUpdatedAt());
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void writeArticleBody(Long articleId, ArticleBodyFormat format, OutputStream out, Consumer<String> etagSink)
+      throws IOException {
+    articleBodyStreamer.write(articleId, format, out, etagSink);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public PageResponse<ArticleListItem> listArticles(
@@ -215,72 +296,22 @@ public class ArticleServiceImpl implements ArticleService {
       Long userId,
       String keyword) {
     Pageable pageable = PageRequest.of(Math.max(page - 1, 0), Math.max(size, 1), buildSort(sortBy, order));
+    Specification<Article> spec = buildListSpec(viewerUserId, status, categoryId, tagId, userId);
 
-    Specification<Article> spec =
-        (root, query, cb) -> {
-          List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
-          predicates.add(cb.notEqual(root.get("status"), ArticleStatus.DELETED));
-
-          if (StringUtils.hasText(keyword)) {
-            String like = "%" + keyword.trim() + "%";
-            predicates.add(cb.or(cb.like(root.get("title"), like), cb.like(root.get("summary"), like)));
-          }
-          if (categoryId != null) {
-            predicates.add(cb.equal(root.get("category").get("id"), categoryId));
-          }
-          if (userId != null) {
-            predicates.add(cb.equal(root.get("author").get("id"), userId));
-          }
-          if (tagId != null) {
-            var subquery = query.subquery(Long.class);
-            var articleTag = subquery.from(ArticleTag.class);
-            subquery.select(articleTag.get("id"));
-            subquery.where(
-                cb.equal(articleTag.get("article").get("id"), root.get("id")),
-                cb.equal(articleTag.get("tag").get("id"), tagId));
-            predicates.add(cb.exists(subquery));
-          }
-
-          ArticleStatus statusEnum = resolveStatusNullable(status);
-          if (statusEnum != null) {
-            predicates.add(cb.equal(root.get("status"), statusEnum));
-          }
-
-          boolean selfQuery = viewerUserId != null && userId != null && Objects.equals(viewerUserId, userId);
-          if (!selfQuery) {
-            predicates.add(cb.equal(root.get("status"), ArticleStatus.PUBLISHED));
-            predicates.add(cb.equal(root.get("visibility"), ArticleVisibility.PUBLIC));
-          }
-
-          return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
-        };
-
-    Page<Article> articlePage = articleRepository.findAll(spec, pageable);
-    List<Article> articles = articlePage.getContent();
-    Map<Long, List<TagDTO>> tagsMap = loadTagsMap(articles);
+    if (StringUtils.hasText(keyword)) {
+      ArticleSearchResult result =
+          articleSearchIndex.search(
+              keyword, buildSearchFilter(viewerUserId, status, categoryId, tagId, userId), (int) pageable.getOffset(), pageable.getPageSize());
+      return PageResponse.<ArticleListItem>builder()
+          .page(page)
+          .size(size)
+          .total(result.getTotal())
+          .list(hydrateHits(result, spec))
+          .build();
+    }
 
-    List<ArticleListItem> list =
-        articles.stream()
-            .map(
-                a ->
-                    ArticleListItem.builder()
-                        .id(a.getId())
-                        .title(a.getTitle())
-                        .slug(a.getSlug())
-                        .coverImage(a.getCoverImage())
-                        .summary(a.getSummary())
-                        .status(a.getStatus().name())
-                        .visibility(a.getVisibility().name())
-                        .author(toAuthorDTO(a.getAuthor()))
-                        .category(toCategoryDTO(a.getCategory()))
-                        .tags(tagsMap.getOrDefault(a.getId(), List.of()))
-                        .viewCount(a.getViewCount())
-                        .likeCount(a.getLikeCount())
-                        .commentCount(a.getCommentCount())
-                        .publishedAt(a.getPublishedAt())
-                        .createdAt(a.getCreatedAt())
-                        .build())
-            .collect(Collectors.toList());
+    Page<ArticleListRow> articlePage = articleRepository.findListRows(spec, pageable);
+    List<ArticleListItem> list = articleListAssembler.toListItems(articlePage.getContent());
 
     return PageResponse.<ArticleListItem>builder()
         .page(page)
@@ -290,35 +321,89 @@ public class ArticleServiceImpl implements ArticleService {
         .build();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PageResponse<ArticleListItem> listArticlesByCursor(
+      Long viewerUserId,
+      String cursor,
+      int size,
+      String sortBy,
+      String order,
+      String status,
+      Long categoryId,
+      Long tagId,
+      Long userId,
+      String keyword) {
+    int limit = Math.max(size, 1);
+    if (StringUtils.hasText(keyword)) {
+      return listByKeywordCursor(viewerUserId, cursor, limit, status, categoryId, tagId, userId, keyword);
+    }
+
+    String field = resolveSortField(sortBy);
+    Sort.Direction direction = resolveSortDirection(order);
+    String directionName = direction.name().toLowerCase();
+    CursorCodec.Cursor after = StringUtils.hasText(cursor) ? CursorCodec.decode(cursor, field, directionName) : null;
+
+    Specification<Article> spec = buildListSpec(viewerUserId, status, categoryId, tagId, userId);
+    if (after != null) {
+      spec = spec.and(seekAfter(field, direction, after));
+    }
+    Sort sort = Sort.by(new Sort.Order(direction, field).nullsLast(), new Sort.Order(direction, "id"));
+    List<ArticleListRow> rows = articleRepository.findListRows(spec, sort, limit + 1);
+
+    boolean hasMore = rows.size() > limit;
+    List<ArticleListRow> pageRows = hasMore ? rows.subList(0, limit) : rows;
+    List<ArticleListItem> list = articleListAssembler.toListItems(pageRows);
+
+    String nextCursor = null;
+    if (hasMore) {
+      ArticleListRow last = pageRows.get(pageRows.size() - 1);
+      nextCursor = CursorCodec.encode(field, directionName, sortValue(last, field), last.getId());
+    }
+    return PageResponse.<ArticleListItem>builder().size(limit).list(list).nextCursor(nextCursor).build();
+  }
+
+  /**
+   * 关键词游标按相关度排序，游标记录下一页在命中结果中的偏移量。
+   */
+  private PageResponse<ArticleListItem> listByKeywordCursor(
+      Long viewerUserId, String cursor, int limit, String status, Long categoryId, Long tagId, Long userId, String keyword) {
+    int offset = 0;
+    if (StringUtils.hasText(cursor)) {
+      Long decoded = CursorCodec.parseLong(CursorCodec.decode(cursor, RELEVANCE_SORT, "desc").getValue());
+      if (decoded < 0 || decoded > Integer.MAX_VALUE - limit) {
+        throw new BusinessException("INVALID_CURSOR", "分页游标无效");
+      }
+      offset = decoded.intValue();
+    }
+    ArticleSearchResult result =
+        articleSearchIndex.search(keyword, buildSearchFilter(viewerUserId, status, categoryId, tagId, userId), offset, limit);
+    List<ArticleListItem> list = hydrateHits(result, buildListSpec(viewerUserId, status, categoryId, tagId, userId));
+
+    String nextCursor = null;
+    int nextOffset = offset + result.getHits().size();
+    if (!result.getHits().isEmpty() && nextOffset < result.getTotal()) {
+      Long lastId = result.getHits().get(result.getHits().size() - 1).getArticleId();
+      nextCursor = CursorCodec.encode(RELEVANCE_SORT, "desc", nextOffset, lastId);
+    }
+    return PageResponse.<ArticleListItem>builder().size(limit).list(list).nextCursor(nextCursor).build();
+  }
+
+  /**
+   * 按命中顺序回表；数据库条件再过滤一次，索引尚未同步的文章不会越权返回。
+   */
+  private List<ArticleListItem> hydrateHits(ArticleSearchResult result, Specification<Article> spec) {
+    List<Long> ids = result.getHits().stream().map(ArticleSearchHit::getArticleId).collect(Collectors.toList());
+    return articleListAssembler.toListItems(articleRepository.findListRowsByIds(ids, spec));
+  }
+
   @Override
   @Transactional(readOnly = true)
   public PageResponse<ArticleListItem> listDrafts(Long userId, int page, int size) {
     Pageable pageable = PageRequest.of(Math.max(page - 1, 0), Math.max(size, 1), Sort.by(Sort.Direction.DESC, "updatedAt"));
-    Page<Article> articlePage = articleRepository.findByAuthorIdAndStatus(userId, ArticleStatus.DRAFT, pageable);
-    Map<Long, List<TagDTO>> tagsMap = loadTagsMap(articlePage.getContent());
-
-    List<ArticleListItem> list =
-        articlePage.getContent().stream()
-            .map(
-                a ->
-                    ArticleListItem.builder()
-                        .id(a.getId())
-                        .title(a.getTitle())
-                        .slug(a.getSlug())
-                        .coverImage(a.getCoverImage())
-                        .summary(a.getSummary())
-                        .status(a.getStatus().name())
-                        .visibility(a.getVisibility().name())
-                        .author(toAuthorDTO(a.getAuthor()))
-                        .category(toCategoryDTO(a.getCategory()))
-                        .tags(tagsMap.getOrDefault(a.getId(), List.of()))
-                        .viewCount(a.getViewCount())
-                        .likeCount(a.getLikeCount())
-                        .commentCount(a.getCommentCount())
-                        .publishedAt(a.getPublishedAt())
-                        .createdAt(a.getCreatedAt())
-                        .build())
-            .collect(Collectors.toList());
+    Page<ArticleListRow> articlePage =
+        articleRepository.findListRows(ArticleSpecifications.authorAndStatus(userId, ArticleStatus.DRAFT), pageable);
+    List<ArticleListItem> list = articleListAssembler.toListItems(articlePage.getContent());
 
     return PageResponse.<ArticleListItem>builder()
         .page(page)
@@ -331,91 +416,94 @@ public class ArticleServiceImpl implements ArticleService {
   @Override
   @Transactional(readOnly = true)
   public List<ArticleListItem> trending(int limit) {
-    Pageable pageable = PageRequest.of(0, Math.max(limit, 1), Sort.by(Sort.Direction.DESC, "viewCount"));
-    PageResponse<ArticleListItem> page =
-        listArticles(null, 1, pageable.getPageSize(), "viewCount", "desc", "PUBLISHED", null, null, null, null);
-    return page.getList();
+    return trendingArticleSnapshot.top(limit);
   }
 
   @Override
   @Transactional(readOnly = true)
   public PageResponse<ArticleListItem> search(Long viewerUserId, String keyword, int page, int size) {
-    return listArticles(viewerUserId, page, size, "publishedAt", "desc", "PUBLISHED", null, null, null, keyword);
+    ArticleSearchResult result = articleSearchIndex.searchPublic(keyword, page, size);
+    List<Long> ids = result.getHits().stream().map(ArticleSearchHit::getArticleId).collect(Collectors.toList());
+    if (ids.isEmpty()) {
+      return PageResponse.<ArticleListItem>builder().page(page).size(size).total(result.getTotal()).list(List.of()).build();
+    }
+
+    Map<Long, String> highlights =
+        result.getHits().stream()
+            .filter(hit -> hit.getHighlight() != null)
+            .collect(Collectors.toMap(ArticleSearchHit::getArticleId, ArticleSearchHit::getHighlight, (a, b) -> a));
+    List<ArticleListItem> list =
+        articleListAssembler.toListItems(articleRepository.findListRowsByIds(ids, ArticleSpecifications.publicArticles()));
+    for (ArticleListItem item : list) {
+      item.setHighlight(highlights.get(item.getId()));
+    }
+
+    return PageResponse.<ArticleListItem>builder()
+        .page(page)
+        .size(size)
+        .total(result.getTotal())
+        .list(list)
+        .build();
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<ArticleListItem> related(Long viewerUserId, Long articleId, int limit) {
-    List<Long> tagIds = articleTagRepository.findTagIdsByArticleId(articleId);
-    if (tagIds.isEmpty()) {
+    List<Long> ids = relatedArticleIndex.neighbours(articleId, limit);
+    if (ids.isEmpty()) {
       return List.of();
     }
-    List<Article> related = articleRepository.findRelatedPublic(articleId, tagIds, PageRequest.of(0, Math.max(limit, 1)));
-    Map<Long, List<TagDTO>> tagsMap = loadTagsMap(related);
-    return related.stream()
-        .map(
-            a ->
-                ArticleListItem.builder()
-                    .id(a.getId())
-                    .title(a.getTitle())
-                    .slug(a.getSlug())
-                    .coverImage(a.getCoverImage())
-                    .summary(a.getSummary())
-                    .status(a.getStatus().name())
-                    .visibility(a.getVisibility().name())
-                    .author(toAuthorDTO(a.getAuthor()))
-                    .category(toCategoryDTO(a.getCategory()))
-                    .tags(tagsMap.getOrDefault(a.getId(), List.of()))
-                    .viewCount(a.getViewCount())
-                    .likeCount(a.getLikeCount())
-                    .commentCount(a.getCommentCount())
-                    .publishedAt(a.getPublishedAt())
-                    .createdAt(a.getCreatedAt())
-                    .build())
-        .collect(Collectors.toList());
+    return articleListAssembler.toListItems(articleRepository.findListRowsByIds(ids, ArticleSpecifications.publicArticles()));
   }
 
   @Override
-  public ArticleResponse toggleLike(Long userId, Long articleId) {
-    Article article = articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
-    if (article.getStatus() != ArticleStatus.PUBLISHED || article.getVisibility() != ArticleVisibility.PUBLIC) {
-      throw new BusinessException("FORBIDDEN", "仅支持对公开发布的文章点赞");
-    }
-
-    ArticleLike like = articleLikeRepository.findByArticle_IdAndUser_Id(articleId, userId).orElse(null);
-    if (like != null) {
-      articleLikeRepository.delete(like);
+  public ArticleInteractionResponse toggleLike(Long userId, Long articleId) {
+    requirePublicArticle(articleId, "仅支持对公开发布的文章点赞");
+
+    // 先幂等插入再按需删除：插入由唯一约束判重，不先读也不先删（删除不存在的行在 MySQL 上会加间隙锁，并发时互相死锁）
+    boolean liked;
+    if (articleLikeRepository.insertIgnore(articleId, userId) > 0) {
+      articleRepository.adjustLikeCount(articleId, 1);
+      eventPublisher.publishEvent(ArticleInteractionChangedEvent.like(articleId, true));
+      liked = true;
     } else {
-      User user = userRepository.findById(userId).orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
-      articleLikeRepository.save(ArticleLike.builder().article(article).user(user).build());
+      int removed = articleLikeRepository.deleteByArticleIdAndUserId(articleId, userId);
+      if (removed > 0) {
+        articleRepository.adjustLikeCount(articleId, -removed);
+        eventPublisher.publishEvent(ArticleInteractionChangedEvent.like(articleId, false));
+      }
+      liked = false;
     }
-    article.setLikeCount(articleLikeRepository.countByArticle_Id(articleId));
-    articleRepository.save(article);
-    return getArticleDetail(userId, articleId);
+    boolean collected = articleCollectionRepository.existsByArticle_IdAndUser_Id(articleId, userId);
+    return toInteractionResponse(articleId, liked, collected);
   }
 
   @Override
-  public ArticleResponse toggleCollect(Long userId, Long articleId) {
-    Article article = articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
-    if (article.getStatus() != ArticleStatus.PUBLISHED || article.getVisibility() != ArticleVisibility.PUBLIC) {
-      throw new BusinessException("FORBIDDEN", "仅支持对公开发布的文章收藏");
-    }
-
-    ArticleCollection collection = articleCollectionRepository.findByArticle_IdAndUser_Id(articleId, userId).orElse(null);
-    if (collection != null) {
-      articleCollectionRepository.delete(collection);
+  public ArticleInteractionResponse toggleCollect(Long userId, Long articleId) {
+    requirePublicArticle(articleId, "仅支持对公开发布的文章收藏");
+
+    // 与点赞相同：先幂等插入，已存在时再删除
+    boolean collected;
+    if (articleCollectionRepository.insertIgnore(articleId, userId) > 0) {
+      articleRepository.adjustCollectCount(articleId, 1);
+      eventPublisher.publishEvent(ArticleInteractionChangedEvent.collect(articleId, true));
+      collected = true;
     } else {
-      User user = userRepository.findById(userId).orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
-      articleCollectionRepository.save(ArticleCollection.builder().article(article).user(user).build());
+      int removed = articleCollectionRepository.deleteByArticleIdAndUserId(articleId, userId);
+      if (removed > 0) {
+        articleRepository.adjustCollectCount(articleId, -removed);
+        eventPublisher.publishEvent(ArticleInteractionChangedEvent.collect(articleId, false));
+      }
+      collected = false;
     }
-    article.setCollectCount(articleCollectionRepository.countByArticle_Id(articleId));
-    articleRepository.save(article);
-    return getArticleDetail(userId, articleId);
+    boolean liked = articleLikeRepository.existsByArticle_IdAndUser_Id(articleId, userId);
+    return toInteractionResponse(articleId, liked, collected);
   }
 
   @Override
   public void recordView(Long viewerUserId, Long articleId, ArticleViewRequest request) {
-    Article article = articleRepository.findById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+    ArticleStateView article =
+        articleRepository.findStateById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
     if (article.getStatus() == ArticleStatus.DELETED) {
       throw new BusinessException("ARTICLE_DELETED", "文章已删除");
     }
@@ -423,38 +511,166 @@ public class ArticleServiceImpl implements ArticleService {
       return;
     }
 
-    article.setViewCount((article.getViewCount() == null ? 0L : article.getViewCount()) + 1);
-    articleRepository.save(article);
+    articleViewCounter.increment(articleId);
+    trendingEngine.recordView(articleId);
 
-    if (viewerUserId == null) {
-      return;
+    if (viewerUserId != null) {
+      readHistoryIngestor.record(viewerUserId, articleId, request);
     }
+  }
 
-    ArticleReadHistory history = articleReadHistoryRepository.findByArticle_IdAndUser_Id(articleId, viewerUserId).orElse(null);
-    if (history == null) {
-      User user = userRepository.findById(viewerUserId).orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
-      history = ArticleReadHistory.builder().article(article).user(user).build();
+  private void requirePublicArticle(Long articleId, String forbiddenMessage) {
+    ArticleStateView state =
+        articleRepository.findStateById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+    if (state.getStatus() != ArticleStatus.PUBLISHED || state.getVisibility() != ArticleVisibility.PUBLIC) {
+      throw new BusinessException("FORBIDDEN", forbiddenMessage);
     }
-    if (request != null) {
-      if (request.getProgress() != null) {
-        history.setProgress(request.getProgress());
+  }
+
+  private ArticleInteractionResponse toInteractionResponse(Long articleId, boolean liked, boolean collected) {
+    ArticleStateView state =
+        articleRepository.findStateById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+    return ArticleInteractionResponse.builder()
+        .id(articleId)
+        .likeCount(state.getLikeCount())
+        .collectCount(state.getCollectCount())
+        .liked(liked)
+        .collected(collected)
+        .build();
+  }
+
+  private ArticleResponse toArticleResponse(Article article, List<Tag> tags, boolean liked, boolean collected) {
+    return ArticleResponse.builder()
+        .id(article.getId())
+        .title(article.getTitle())
+        .slug(article.getSlug())
+        .coverImage(article.getCoverImage())
+        .summary(article.getSummary())
+        .content(article.getContent())
+        .htmlContent(article.getHtmlContent())
+        .toc(markdownRenderService.readToc(article.getTocJson()))
+        .wordCount(article.getWordCount())
+        .status(article.getStatus().name())
+        .visibility(article.getVisibility().name())
+        .category(articleListAssembler.toCategoryDTO(article.getCategory()))
+        .tags(tags.stream().map(articleListAssembler::toTagDTO).collect(Collectors.toList()))
+        .author(articleListAssembler.toAuthorDTO(article.getAuthor()))
+        .viewCount((article.getViewCount() == null ? 0L : article.getViewCount()) + articleViewCounter.pendingDelta(article.getId()))
+        .likeCount(article.getLikeCount())
+        .collectCount(article.getCollectCount())
+        .commentCount(article.getCommentCount())
+        .publishedAt(article.getPublishedAt())
+        .createdAt(article.getCreatedAt())
+        .updatedAt(article.getUpdatedAt())
+        .liked(liked)
+        .collected(collected)
+        .build();
+  }
+
+  private Specification<Article> buildListSpec(Long viewerUserId, String status, Long categoryId, Long tagId, Long userId) {
+    return (root, query, cb) -> {
+      List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
+      predicates.add(cb.notEqual(root.get("status"), ArticleStatus.DELETED));
+
+      if (categoryId != null) {
+        predicates.add(cb.equal(root.get("category").get("id"), categoryId));
       }
-      if (request.getLastPosition() != null) {
-        history.setLastPosition(request.getLastPosition());
+      if (userId != null) {
+        predicates.add(cb.equal(root.get("author").get("id"), userId));
       }
-      if (request.getReadDuration() != null) {
-        history.setReadDuration(request.getReadDuration());
+      if (tagId != null) {
+        var subquery = query.subquery(Long.class);
+        var articleTag = subquery.from(ArticleTag.class);
+        subquery.select(articleTag.get("id"));
+        subquery.where(
+            cb.equal(articleTag.get("article").get("id"), root.get("id")),
+            cb.equal(articleTag.get("tag").get("id"), tagId));
+        predicates.add(cb.exists(subquery));
       }
+
+      ArticleStatus statusEnum = resolveStatusNullable(status);
+      if (statusEnum != null) {
+        predicates.add(cb.equal(root.get("status"), statusEnum));
+      }
+
+      boolean selfQuery = viewerUserId != null && userId != null && Objects.equals(viewerUserId, userId);
+      if (!selfQuery) {
+        predicates.add(cb.equal(root.get("status"), ArticleStatus.PUBLISHED));
+        predicates.add(cb.equal(root.get("visibility"), ArticleVisibility.PUBLIC));
+      }
+
+      return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
+    };
+  }
+
+  /** 与 {@link #buildListSpec} 相同的条件，下推到搜索索引 */
+  private ArticleSearchFilter buildSearchFilter(Long viewerUserId, String status, Long categoryId, Long tagId, Long userId) {
+    ArticleStatus statusEnum = resolveStatusNullable(status);
+    boolean selfQuery = viewerUserId != null && userId != null && Objects.equals(viewerUserId, userId);
+    return ArticleSearchFilter.builder()
+        .status(statusEnum == null ? null : statusEnum.name())
+        .publicOnly(!selfQuery)
+        .authorId(userId)
+        .categoryId(categoryId)
+        .tagId(tagId)
+        .build();
+  }
+
+  /**
+   * 游标之后的行。排序值为 null 的行（如草稿的 publishedAt）无论方向都排在最后，按 id 续翻。
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Specification<Article> seekAfter(String field, Sort.Direction direction, CursorCodec.Cursor after) {
+    Comparable afterValue = after.getValue() == null ? null : parseSortValue(field, after.getValue());
+    Long afterId = after.getId();
+    return (root, query, cb) -> {
+      jakarta.persistence.criteria.Path<Comparable> key = root.get(field);
+      jakarta.persistence.criteria.Path<Long> id = root.get("id");
+      jakarta.persistence.criteria.Predicate idAfter =
+          direction.isAscending() ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId);
+      if (afterValue == null) {
+        return cb.and(cb.isNull(key), idAfter);
+      }
+      jakarta.persistence.criteria.Predicate keyAfter =
+          direction.isAscending() ? cb.greaterThan(key, afterValue) : cb.lessThan(key, afterValue);
+      return cb.or(keyAfter, cb.and(cb.equal(key, afterValue), idAfter), cb.isNull(key));
+    };
+  }
+
+  private Comparable<?> parseSortValue(String field, String value) {
+    return switch (field) {
+      case "publishedAt", "createdAt" -> CursorCodec.parseTime(value);
+      default -> CursorCodec.parseLong(value);
+    };
+  }
+
+  private Object sortValue(ArticleListRow article, String field) {
+    return switch (field) {
+      case "publishedAt" -> article.getPublishedAt();
+      case "viewCount" -> article.getViewCount();
+      case "likeCount" -> article.getLikeCount();
+      case "commentCount" -> article.getCommentCount();
+      default -> article.getCreatedAt();
+    };
+  }
+
+  private ArticleStateView loadViewableState(Long viewerUserId, Long articleId) {
+    ArticleStateView state =
+        articleRepository.findStateById(articleId).orElseThrow(() -> new BusinessException("ARTICLE_NOT_FOUND", "文章不存在"));
+    if (state.getStatus() == ArticleStatus.DELETED) {
+      throw new BusinessException("ARTICLE_DELETED", "文章已删除");
+    }
+    if (!canViewArticle(viewerUserId, state)) {
+      throw new BusinessException("FORBIDDEN", "无权访问该文章");
     }
-    history.setLastReadAt(LocalDateTime.now());
-    articleReadHistoryRepository.save(history);
+    return state;
   }
 
-  private boolean canViewArticle(Long viewerUserId, Article article) {
-    if (article.getStatus() == ArticleStatus.PUBLISHED && article.getVisibility() == ArticleVisibility.PUBLIC) {
+  private boolean canViewArticle(Long viewerUserId, ArticleStateView state) {
+    if (state.getStatus() == ArticleStatus.PUBLISHED && state.getVisibility() == ArticleVisibility.PUBLIC) {
       return true;
     }
-    return viewerUserId != null && Objects.equals(viewerUserId, article.getAuthor().getId());
+    return viewerUserId != null && Objects.equals(viewerUserId, state.getAuthorId());
   }
 
   private Category resolveCategory(Long categoryId) {
@@ -496,113 +712,72 @@ public class ArticleServiceImpl implements ArticleService {
   }
 
   private Sort buildSort(String sortBy, String order) {
-    String field;
+    return Sort.by(resolveSortDirection(order), resolveSortField(sortBy));
+  }
+
+  private String resolveSortField(String sortBy) {
     if (!StringUtils.hasText(sortBy)) {
-      field = "createdAt";
-    } else {
-      String s = sortBy.trim();
-      field =
-          switch (s) {
-            case "publishedAt", "published_at" -> "publishedAt";
-            case "viewCount", "view_count" -> "viewCount";
-            case "likeCount", "like_count" -> "likeCount";
-            case "commentCount", "comment_count" -> "commentCount";
-            default -> "createdAt";
-          };
-    }
-    Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
-    return Sort.by(direction, field);
+      return "createdAt";
+    }
+    return switch (sortBy.trim()) {
+      case "publishedAt", "published_at" -> "publishedAt";
+      case "viewCount", "view_count" -> "viewCount";
+      case "likeCount", "like_count" -> "likeCount";
+      case "commentCount", "comment_count" -> "commentCount";
+      default -> "createdAt";
+    };
+  }
+
+  private Sort.Direction resolveSortDirection(String order) {
+    return "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
   }
 
   private String resolveUniqueSlug(Long articleId, String slug, String title) {
     String base = StringUtils.hasText(slug) ? SlugUtil.toSlug(slug) : SlugUtil.toSlug(title);
-    String candidate = base;
-    int i = 1;
-    while (true) {
-      Article existing = articleRepository.findBySlug(candidate).orElse(null);
-      if (existing == null || (articleId != null && Objects.equals(existing.getId(), articleId))) {
-        return candidate;
-      }
-      candidate = base + "-" + i;
-      i++;
-      if (i > 1000) {
-        throw new BusinessException("SLUG_CONFLICT", "slug 冲突，请修改标题或自定义 slug");
-      }
-    }
+    return articleSlugAllocator.allocate(articleId, base);
   }
 
-  private void saveTags(Article article, List<Long> tagIds) {
-    articleTagRepository.deleteByArticle_Id(article.getId());
-    if (tagIds == null || tagIds.isEmpty()) {
-      return;
-    }
-    List<Tag> tags = tagRepository.findAllById(tagIds);
-    Set<Long> found = tags.stream().map(Tag::getId).collect(Collectors.toSet());
-    for (Long id : tagIds) {
-      if (!found.contains(id)) {
-        throw new BusinessException("TAG_NOT_FOUND", "标签不存在: " + id);
+  /**
+   * slug 由唯一约束兜底：并发写入撞上同一 slug 时整个事务重试，重新分配。
+   */
+  private <T> T withSlugRetry(Supplier<T> action) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return action.get();
+      } catch (DataIntegrityViolationException e) {
+        if (attempt >= SLUG_ATTEMPTS) {
+          throw e;
+        }
       }
     }
-    for (Tag tag : tags) {
-      articleTagRepository.save(ArticleTag.builder().article(article).tag(tag).build());
-    }
-  }
-
-  private Map<Long, List<TagDTO>> loadTagsMap(List<Article> articles) {
-    if (articles == null || articles.isEmpty()) {
-      return Map.of();
-    }
-    List<Long> articleIds = articles.stream().map(Article::getId).collect(Collectors.toList());
-    List<ArticleTag> articleTags = articleTagRepository.findWithTagByArticleIdIn(articleIds);
-    Map<Long, List<TagDTO>> map = new HashMap<>();
-    for (ArticleTag at : articleTags) {
-      map.computeIfAbsent(at.getArticle().getId(), k -> new ArrayList<>()).add(toTagDTO(at.getTag()));
-    }
-    return map;
   }
 
-  private TagDTO toTagDTO(Tag tag) {
-    return TagDTO.builder()
-        .id(tag.getId())
-        .name(tag.getName())
-        .slug(tag.getSlug())
-        .description(tag.getDescription())
-        .icon(tag.getIcon())
-        .color(tag.getColor())
-        .articleCount(tag.getArticleCount())
-        .recommended(tag.getRecommended())
-        .createdAt(tag.getCreatedAt())
-        .build();
+  private static ArticleCountDeltaBuffer.State countState(Article article, Collection<Long> tagIds) {
+    return ArticleCountDeltaBuffer.State.of(
+        article.getStatus(), article.getVisibility(), article.getCategory() == null ? null : article.getCategory().getId(), tagIds);
   }
 
-  private CategoryDTO toCategoryDTO(Category category) {
-    if (category == null) {
-      return null;
+  /**
+   * 按与现有关联的差集更新文章标签：移除的一条批量 delete，新增的一次 JDBC 批量 insert。
+   */
+  private List<Tag> saveTags(Article article, List<Long> tagIds, Collection<Long> existingTagIds) {
+    Set<Long> requested = tagIds == null ? Set.of() : new LinkedHashSet<>(tagIds);
+    List<Tag> tags = requested.isEmpty() ? List.of() : tagRepository.findAllById(requested);
+    if (tags.size() != requested.size()) {
+      Set<Long> found = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+      for (Long id : requested) {
+        if (!found.contains(id)) {
+          throw new BusinessException("TAG_NOT_FOUND", "标签不存在: " + id);
+        }
+      }
     }
-    return CategoryDTO.builder()
-        .id(category.getId())
-        .name(category.getName())
-        .slug(category.getSlug())
-        .description(category.getDescription())
-        .icon(category.getIcon())
-        .sortOrder(category.getSortOrder())
-        .parentId(category.getParent() == null ? null : category.getParent().getId())
-        .articleCount(category.getArticleCount())
-        .createdAt(category.getCreatedAt())
-        .build();
-  }
-
-  private UserDTO toAuthorDTO(User user) {
-    List<String> roles = user.getRoles() == null ? List.of() : user.getRoles().stream().map(r -> r.getRoleCode()).toList();
-    return UserDTO.builder()
-        .id(user.getId())
-        .username(user.getUsername())
-        .email(user.getEmail())
-        .displayName(user.getDisplayName())
-        .avatarUrl(user.getAvatarUrl())
-        .bio(user.getBio())
-        .roles(roles)
-        .createdAt(user.getCreatedAt())
-        .build();
+    Set<Long> removed = new HashSet<>(existingTagIds);
+    removed.removeAll(requested);
+    if (!removed.isEmpty()) {
+      articleTagRepository.deleteByArticleIdAndTagIdIn(article.getId(), removed);
+    }
+    List<Long> added = requested.stream().filter(id -> !existingTagIds.contains(id)).toList();
+    articleTagRepository.insertAll(article.getId(), added);
+    return tags;
   }
 }
@@ -0,0 +1,118 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.exception.BusinessException;
+import com.guoguo.blog.backend.repository.ArticleRepository;
+import com.guoguo.blog.backend.repository.ArticleSlugView;
+import com.guoguo.blog.backend.util.BloomFilter;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章 slug 分配
+ *
+ * <p>一次前缀查询取出 {@code base} 与 {@code base-N} 的全部已占用 slug，在内存中选最小的空闲序号；
+ * 文章本身已占用其中之一时保留原 slug。布隆过滤器未命中时说明 base 从未被占用，直接返回而不查库。
+ * 并发分配到同一 slug 时由唯一约束拒绝，调用方重试即可（重试时 base 已在过滤器中，会走查询）。</p>
+ */
+@Slf4j
+@Component
+public class ArticleSlugAllocator {
+  private final ArticleRepository articleRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final BloomFilter bloomFilter;
+  private final int maxSuffix;
+  private volatile boolean bloomLoaded;
+
+  public ArticleSlugAllocator(
+      ArticleRepository articleRepository,
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.article.slug.bloom-expected-insertions:1000000}") long expectedInsertions,
+      @Value("${app.article.slug.bloom-false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${app.article.slug.max-suffix:1000}") int maxSuffix) {
+    this.articleRepository = articleRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.maxSuffix = Math.max(maxSuffix, 1);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadBloomFilter() {
+    long[] count = {0L};
+    jdbcTemplate.query(
+        "select slug from articles",
+        rs -> {
+          bloomFilter.put(rs.getString(1));
+          count[0]++;
+        });
+    bloomLoaded = true;
+    log.info("article_slug_bloom_loaded: slugs={}", count[0]);
+  }
+
+  /**
+   * 为文章分配不冲突的 slug；articleId 为空表示新建。
+   */
+  public String allocate(Long articleId, String base) {
+    if (bloomLoaded && !bloomFilter.mightContain(base)) {
+      bloomFilter.put(base);
+      return base;
+    }
+    List<ArticleSlugView> family = articleRepository.findSlugFamily(base);
+    BitSet taken = new BitSet(maxSuffix + 2);
+    for (ArticleSlugView row : family) {
+      if (articleId != null && Objects.equals(row.getId(), articleId) && isNumbered(base, row.getSlug())) {
+        return row.getSlug();
+      }
+      // 超过 maxSuffix 的序号不会被分配，忽略即可，位图大小因此有界
+      int suffix = suffixOf(base, row.getSlug(), maxSuffix);
+      if (suffix >= 0) {
+        taken.set(suffix);
+      }
+    }
+    int free = taken.nextClearBit(0);
+    if (free > maxSuffix) {
+      throw new BusinessException("SLUG_CONFLICT", "slug 冲突，请修改标题或自定义 slug");
+    }
+    String slug = free == 0 ? base : base + "-" + free;
+    bloomFilter.put(base);
+    bloomFilter.put(slug);
+    return slug;
+  }
+
+  /** slug 是否为 base 本身或 {@code base-N}（N 为不带前导零的正整数）。 */
+  private static boolean isNumbered(String base, String slug) {
+    if (slug.equals(base)) {
+      return true;
+    }
+    if (!slug.startsWith(base + "-") || slug.length() == base.length() + 1 || slug.charAt(base.length() + 1) == '0') {
+      return false;
+    }
+    for (int i = base.length() + 1; i < slug.length(); i++) {
+      if (slug.charAt(i) < '0' || slug.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** base 本身返回 0，{@code base-N} 且 N 不超过 limit 时返回 N，其它返回 -1。 */
+  private static int suffixOf(String base, String slug, int limit) {
+    if (!isNumbered(base, slug)) {
+      return -1;
+    }
+    long suffix = 0L;
+    for (int i = base.length() + 1; i < slug.length(); i++) {
+      suffix = suffix * 10 + (slug.charAt(i) - '0');
+      if (suffix > limit) {
+        return -1;
+      }
+    }
+    return (int) suffix;
+  }
+}
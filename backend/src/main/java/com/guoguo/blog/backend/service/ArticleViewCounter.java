@@ -0,0 +1,166 @@
+package com.guoguo.blog.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章阅读数写回缓冲
+ *
+ * <p>阅读数先累加到内存中的 {@link LongAdder}，再按固定间隔以批量相对更新写回 {@code articles.view_count}。
+ * 写库成功后才扣减已写回的增量，失败时增量保留到下一轮。</p>
+ *
+ * <p>跟踪的文章数超过上限时清理计数为 0 的条目。累加方先登记再检查移除标记，清理方先置移除标记再检查登记数与计数，
+ * 二者至少有一方能看到对方：看到标记的累加方尚未累加，换新条目重试；累加方已通过检查时清理方会看到登记或计数，
+ * 撤销标记保留条目。</p>
+ */
+@Slf4j
+@Component
+public class ArticleViewCounter {
+  private static final String FLUSH_SQL = "update articles set view_count = view_count + ? where id = ?";
+
+  private final ConcurrentHashMap<Long, Slot> pending = new ConcurrentHashMap<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+  private final int maxTrackedArticles;
+  private final Counter flushedCounter;
+  private final Counter flushFailureCounter;
+
+  public ArticleViewCounter(
+      JdbcTemplate jdbcTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.article.view-counter.batch-size:500}") int batchSize,
+      @Value("${app.article.view-counter.max-tracked-articles:100000}") int maxTrackedArticles) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = Math.max(batchSize, 1);
+    this.maxTrackedArticles = Math.max(maxTrackedArticles, 1);
+    Gauge.builder("blog.article.views.pending", this, ArticleViewCounter::pendingTotal)
+        .description("尚未写回数据库的阅读数增量")
+        .register(meterRegistry);
+    Gauge.builder("blog.article.views.pending.articles", pending, Map::size)
+        .description("存在待写回增量的文章数")
+        .register(meterRegistry);
+    this.flushedCounter =
+        Counter.builder("blog.article.views.flushed").description("已写回数据库的阅读数").register(meterRegistry);
+    this.flushFailureCounter =
+        Counter.builder("blog.article.views.flush.failures").description("阅读数写回失败次数").register(meterRegistry);
+  }
+
+  public void increment(Long articleId) {
+    while (true) {
+      if (pending.computeIfAbsent(articleId, id -> new Slot()).tryIncrement()) {
+        return;
+      }
+    }
+  }
+
+  public long pendingDelta(Long articleId) {
+    Slot slot = pending.get(articleId);
+    return slot == null ? 0L : slot.count.sum();
+  }
+
+  public long pendingTotal() {
+    long total = 0L;
+    for (Slot slot : pending.values()) {
+      total += slot.count.sum();
+    }
+    return total;
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.article.view-counter.flush-interval-ms:5000}",
+      fixedDelayString = "${app.article.view-counter.flush-interval-ms:5000}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<Map.Entry<Long, Slot>> dirty = new ArrayList<>();
+      List<Long> deltas = new ArrayList<>();
+      for (Map.Entry<Long, Slot> entry : pending.entrySet()) {
+        long delta = entry.getValue().count.sum();
+        if (delta > 0) {
+          dirty.add(entry);
+          deltas.add(delta);
+        }
+      }
+
+      for (int from = 0; from < dirty.size(); from += batchSize) {
+        int to = Math.min(from + batchSize, dirty.size());
+        List<Object[]> args = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+          args.add(new Object[] {deltas.get(i), dirty.get(i).getKey()});
+        }
+        try {
+          jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+        } catch (RuntimeException e) {
+          flushFailureCounter.increment();
+          log.warn("view_counter_flush_failed: articles={}", to - from, e);
+          continue;
+        }
+        long written = 0L;
+        for (int i = from; i < to; i++) {
+          dirty.get(i).getValue().count.add(-deltas.get(i));
+          written += deltas.get(i);
+        }
+        flushedCounter.increment(written);
+      }
+
+      if (pending.size() > maxTrackedArticles) {
+        for (Long articleId : pending.keySet()) {
+          pending.computeIfPresent(articleId, (id, slot) -> slot.tryEvict() ? null : slot);
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private static final class Slot {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder writers = new LongAdder();
+    private volatile boolean evicted;
+
+    boolean tryIncrement() {
+      writers.increment();
+      try {
+        if (evicted) {
+          return false;
+        }
+        count.increment();
+        return true;
+      } finally {
+        writers.decrement();
+      }
+    }
+
+    /** 仅在写回线程持有该键时调用；无未写回增量且无进行中的累加时标记为已移除 */
+    boolean tryEvict() {
+      if (count.sum() != 0L) {
+        return false;
+      }
+      evicted = true;
+      if (writers.sum() != 0L || count.sum() != 0L) {
+        evicted = false;
+        return false;
+      }
+      return true;
+    }
+  }
+}
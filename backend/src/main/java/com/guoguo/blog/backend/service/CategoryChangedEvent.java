@@ -0,0 +1,16 @@
+package com.guoguo.blog.backend.service;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 分类变更事件
+ *
+ * <p>分类创建、更新、删除、批量启停后发布，携带变更的分类ID，供分类树快照重建、文章详情缓存失效。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+  private final Set<Long> categoryIds;
+}
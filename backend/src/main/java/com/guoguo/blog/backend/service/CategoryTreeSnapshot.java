@@ -0,0 +1,202 @@
+package com.guoguo.blog.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guoguo.blog.backend.dto.CategoryTreeDTO;
+import com.guoguo.blog.backend.web.ApiResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 分类树快照
+ *
+ * <p>一次查询全部分类，预先组装全部、仅启用、仅停用三种分类树并序列化为接口响应 JSON，整体替换后供接口直接输出。
+ * 分类变更事务提交后重建；重建串行执行，读取不加锁。仅文章数变化时按ID回读受影响分类的当前文章数并替换到已加载的分类行，
+ * 响应 JSON 留到下次读取时重新序列化，连续的计数变化只序列化一次。</p>
+ */
+@Component
+public class CategoryTreeSnapshot {
+  private static final String SELECT_SQL =
+      "select id, parent_id, name, slug, icon, color, sort_order, article_count, is_enabled from categories "
+          + "order by sort_order asc, id desc";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile List<Row> rows;
+  private volatile Snapshot snapshot;
+
+  public CategoryTreeSnapshot(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * 返回分类树响应 JSON；enabled 为空时返回全部分类。
+   */
+  public byte[] treeJson(Boolean enabled) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      current = render();
+    }
+    if (enabled == null) {
+      return current.all();
+    }
+    return enabled ? current.enabledOnly() : current.disabledOnly();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    rebuild();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onArticleCountsChanged(ArticleCountsChangedEvent event) {
+    refreshArticleCounts(event.getCategoryIds());
+  }
+
+  public void rebuild() {
+    lock.lock();
+    try {
+      List<Row> loaded = load();
+      rows = loaded;
+      snapshot = toSnapshot(loaded);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 回读指定分类的文章数并替换到已加载的分类行；未加载时无需处理，下次读取整体加载。
+   */
+  public void refreshArticleCounts(Set<Long> categoryIds) {
+    if (categoryIds.isEmpty() || rows == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      List<Row> current = rows;
+      if (current == null) {
+        return;
+      }
+      String placeholders = String.join(",", Collections.nCopies(categoryIds.size(), "?"));
+      Map<Long, Integer> counts = new HashMap<>();
+      jdbcTemplate.query(
+          "select id, article_count from categories where id in (" + placeholders + ")",
+          rs -> {
+            counts.put(rs.getLong("id"), rs.getObject("article_count", Integer.class));
+          },
+          categoryIds.toArray());
+      List<Row> patched = new ArrayList<>(current.size());
+      for (Row row : current) {
+        patched.add(
+            counts.containsKey(row.id()) ? new Row(row.id(), row.parentId(), counts.get(row.id()), row.node()) : row);
+      }
+      rows = patched;
+      snapshot = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Snapshot render() {
+    lock.lock();
+    try {
+      Snapshot current = snapshot;
+      if (current != null) {
+        return current;
+      }
+      List<Row> loaded = rows;
+      if (loaded == null) {
+        loaded = load();
+        rows = loaded;
+      }
+      current = toSnapshot(loaded);
+      snapshot = current;
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private List<Row> load() {
+    return jdbcTemplate.query(
+        SELECT_SQL,
+        (rs, rowNum) ->
+            new Row(
+                rs.getLong("id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getObject("article_count", Integer.class),
+                CategoryTreeDTO.builder()
+                    .id(rs.getLong("id"))
+                    .name(rs.getString("name"))
+                    .slug(rs.getString("slug"))
+                    .icon(rs.getString("icon"))
+                    .color(rs.getString("color"))
+                    .sortOrder(rs.getObject("sort_order", Integer.class))
+                    .enabled(rs.getObject("is_enabled", Boolean.class))
+                    .build()));
+  }
+
+  private Snapshot toSnapshot(List<Row> rows) {
+    return new Snapshot(
+        serialize(build(rows, row -> true)),
+        serialize(build(rows, row -> Boolean.TRUE.equals(row.node().getEnabled()))),
+        serialize(build(rows, row -> Boolean.FALSE.equals(row.node().getEnabled()))));
+  }
+
+  /**
+   * 按父分类分组后自根节点向下组装；被过滤掉的分类，其子分类也不出现在树中。
+   */
+  private static List<CategoryTreeDTO> build(List<Row> rows, Predicate<Row> filter) {
+    Map<Long, List<Row>> childrenMap = new HashMap<>();
+    for (Row row : rows) {
+      if (filter.test(row)) {
+        childrenMap.computeIfAbsent(row.parentId() == null ? 0L : row.parentId(), k -> new ArrayList<>()).add(row);
+      }
+    }
+    return toTree(childrenMap.getOrDefault(0L, List.of()), childrenMap);
+  }
+
+  private static List<CategoryTreeDTO> toTree(List<Row> rows, Map<Long, List<Row>> childrenMap) {
+    List<CategoryTreeDTO> tree = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      CategoryTreeDTO node = row.node();
+      tree.add(
+          CategoryTreeDTO.builder()
+              .id(node.getId())
+              .name(node.getName())
+              .slug(node.getSlug())
+              .icon(node.getIcon())
+              .color(node.getColor())
+              .sortOrder(node.getSortOrder())
+              .articleCount(row.articleCount())
+              .enabled(node.getEnabled())
+              .children(toTree(childrenMap.getOrDefault(row.id(), List.of()), childrenMap))
+              .build());
+    }
+    return tree;
+  }
+
+  private byte[] serialize(List<CategoryTreeDTO> tree) {
+    try {
+      return objectMapper.writeValueAsBytes(ApiResponse.success(tree));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("category_tree_serialize_failed", e);
+    }
+  }
+
+  private record Row(Long id, Long parentId, Integer articleCount, CategoryTreeDTO node) {}
+
+  private record Snapshot(byte[] all, byte[] enabledOnly, byte[] disabledOnly) {}
+}
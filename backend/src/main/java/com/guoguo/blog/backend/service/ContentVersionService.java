@@ -0,0 +1,75 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.repository.ArticleRepository;
+import com.guoguo.blog.backend.repository.ArticleStateView;
+import com.guoguo.blog.backend.web.HttpCaching;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 数据版本
+ *
+ * <p>为条件 GET 提供数据版本：列表类取表内最大 updated_at（文章为软删除且删除时更新 updated_at；标签、分类另加行数与文章数合计），
+ * 单篇文章取更新时间与各计数。
+ * 计数变化不会更新 updated_at，因此聚合版本另拼接一个时间分桶，保证计数最多滞后一个分桶。
+ * 版本都不只取决于 updated_at，因此只用作 ETag，不提供 Last-Modified。</p>
+ */
+@Service
+public class ContentVersionService {
+  private final JdbcTemplate jdbcTemplate;
+  private final ArticleRepository articleRepository;
+  private final ArticleViewCounter articleViewCounter;
+  private final long bucketMillis;
+
+  public ContentVersionService(
+      JdbcTemplate jdbcTemplate,
+      ArticleRepository articleRepository,
+      ArticleViewCounter articleViewCounter,
+      @Value("${app.http-cache.version-bucket:60s}") Duration bucket) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.articleRepository = articleRepository;
+    this.articleViewCounter = articleViewCounter;
+    this.bucketMillis = Math.max(bucket.toMillis(), 1000L);
+  }
+
+  /**
+   * 返回数据版本；单篇文章不存在时返回 null，交由接口返回错误。
+   */
+  public String resolve(HttpCaching.Source source, Long id) {
+    return switch (source) {
+      case ARTICLES -> aggregate("select 0, max(updated_at), 0 from articles");
+      case TAGS -> aggregate("select count(*), max(updated_at), coalesce(sum(article_count), 0) from tags");
+      case CATEGORIES -> aggregate("select count(*), max(updated_at), coalesce(sum(article_count), 0) from categories");
+      case ARTICLE -> id == null ? null : article(id);
+    };
+  }
+
+  private String aggregate(String sql) {
+    return jdbcTemplate.queryForObject(
+        sql,
+        (rs, rowNum) -> {
+          Timestamp updatedAt = rs.getTimestamp(2);
+          long updatedMillis = updatedAt == null ? 0L : updatedAt.getTime();
+          return rs.getLong(1) + "." + updatedMillis + "." + rs.getLong(3) + "." + System.currentTimeMillis() / bucketMillis;
+        });
+  }
+
+  private String article(Long id) {
+    ArticleStateView state = articleRepository.findStateById(id).orElse(null);
+    if (state == null) {
+      return null;
+    }
+    long views = (state.getViewCount() == null ? 0L : state.getViewCount()) + articleViewCounter.pendingDelta(id);
+    return toMillis(state.getUpdatedAt())
+        + "." + views + "." + state.getLikeCount() + "." + state.getCollectCount() + "." + state.getCommentCount();
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,77 @@
+package com.guoguo.blog.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guoguo.blog.backend.repository.TagFollowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户关注标签缓存
+ *
+ * <p>按用户ID缓存已关注标签ID的压缩位图（未关注任何标签的用户也缓存空位图），判断关注状态只需一次位测试。
+ * 位图生成后只读；关注/取消关注后按用户失效。加载在缓存的 compute 之外进行，避免在桶锁内执行 JDBC
+ * （虚拟线程下会钉住载体线程）。</p>
+ */
+@Component
+public class FollowedTagCache {
+  private static final LongPredicate NONE = tagId -> false;
+
+  private final TagFollowRepository tagFollowRepository;
+  private final Cache<Long, Roaring64NavigableMap> cache;
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public FollowedTagCache(
+      TagFollowRepository tagFollowRepository,
+      MeterRegistry meterRegistry,
+      @Value("${app.tag.followed-cache.max-size:10000}") long maxSize,
+      @Value("${app.tag.followed-cache.ttl:10m}") Duration ttl) {
+    this.tagFollowRepository = tagFollowRepository;
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "followedTags");
+  }
+
+  /**
+   * 返回判断某标签是否被该用户关注的谓词；userId 为空时恒为 false。
+   */
+  public LongPredicate following(Long userId) {
+    if (userId == null) {
+      return NONE;
+    }
+    Roaring64NavigableMap bitmap = cache.getIfPresent(userId);
+    if (bitmap == null) {
+      long generation = invalidations.get();
+      bitmap = load(userId);
+      cache.put(userId, bitmap);
+      // 加载期间发生过失效时不保留可能过期的结果
+      if (invalidations.get() != generation) {
+        cache.invalidate(userId);
+      }
+    }
+    return bitmap::contains;
+  }
+
+  public boolean isFollowing(Long userId, Long tagId) {
+    return tagId != null && following(userId).test(tagId);
+  }
+
+  public void evict(Long userId) {
+    invalidations.incrementAndGet();
+    cache.invalidate(userId);
+  }
+
+  private Roaring64NavigableMap load(Long userId) {
+    Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+    for (Long tagId : tagFollowRepository.findTagIdsByUserId(userId)) {
+      bitmap.addLong(tagId);
+    }
+    bitmap.runOptimize();
+    return bitmap;
+  }
+}
@@ -0,0 +1,145 @@
+package com.guoguo.blog.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guoguo.blog.backend.dto.TocItem;
+import com.guoguo.blog.backend.exception.BusinessException;
+import com.guoguo.blog.backend.util.MarkdownBlockRenderer;
+import com.guoguo.blog.backend.util.RenderedMarkdown;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Markdown 渲染服务
+ *
+ * <p>在有界线程池中渲染，调用方应在开启数据库事务前取得结果。渲染结果按正文 SHA-256 缓存，正文未变时不再重复解析；
+ * 长文按顶层块增量渲染（见 {@link MarkdownBlockRenderer}），编辑后只重新渲染变化的块。</p>
+ */
+@Slf4j
+@Component
+public class MarkdownRenderService {
+  public static final int SUMMARY_LENGTH = 120;
+
+  private static final TypeReference<List<TocItem>> TOC_TYPE = new TypeReference<>() {};
+
+  private final ObjectMapper objectMapper;
+  private final ThreadPoolExecutor executor;
+  private final Cache<String, Rendered> cache;
+  private final MarkdownBlockRenderer blockRenderer;
+
+  public MarkdownRenderService(
+      ObjectMapper objectMapper,
+      @Value("${app.markdown.render.threads:2}") int threads,
+      @Value("${app.markdown.render.queue-capacity:100}") int queueCapacity,
+      @Value("${app.markdown.render.cache-size:500}") long cacheSize,
+      @Value("${app.markdown.render.block-cache-chars:20000000}") long blockCacheChars,
+      @Value("${app.markdown.render.incremental-min-length:20000}") int incrementalMinLength) {
+    this.objectMapper = objectMapper;
+    AtomicInteger sequence = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            Math.max(threads, 1),
+            Math.max(threads, 1),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+            r -> {
+              Thread thread = new Thread(r, "markdown-render-" + sequence.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    this.cache = Caffeine.newBuilder().maximumSize(Math.max(cacheSize, 1L)).build();
+    this.blockRenderer = new MarkdownBlockRenderer(blockCacheChars, incrementalMinLength);
+  }
+
+  /**
+   * 渲染正文；正文哈希与 {@code previousHash} 相同时返回 null，表示沿用已保存的渲染结果。
+   */
+  public Rendered renderIfChanged(String markdown, String previousHash) {
+    String hash = hash(markdown);
+    if (hash.equals(previousHash)) {
+      return null;
+    }
+    return render(markdown, hash);
+  }
+
+  public Rendered render(String markdown) {
+    return render(markdown, hash(markdown));
+  }
+
+  public List<TocItem> readToc(String tocJson) {
+    if (tocJson == null || tocJson.isEmpty()) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(tocJson, TOC_TYPE);
+    } catch (JsonProcessingException e) {
+      log.warn("article_toc_unreadable", e);
+      return null;
+    }
+  }
+
+  public static String hash(String markdown) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest((markdown == null ? "" : markdown).getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private Rendered render(String markdown, String hash) {
+    Rendered cached = cache.getIfPresent(hash);
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      Rendered rendered = CompletableFuture.supplyAsync(() -> toRendered(markdown, hash), executor).join();
+      cache.put(hash, rendered);
+      return rendered;
+    } catch (CompletionException e) {
+      log.warn("markdown_render_failed", e.getCause());
+      throw new BusinessException("MARKDOWN_RENDER_FAILED", "正文渲染失败");
+    }
+  }
+
+  private Rendered toRendered(String markdown, String hash) {
+    RenderedMarkdown result = blockRenderer.render(markdown, SUMMARY_LENGTH);
+    List<TocItem> toc =
+        result.getToc().stream()
+            .map(e -> TocItem.builder().level(e.getLevel()).text(e.getText()).anchor(e.getAnchor()).build())
+            .toList();
+    try {
+      String tocJson = toc.isEmpty() ? null : objectMapper.writeValueAsString(toc);
+      return new Rendered(hash, result.getHtml(), result.getSummary(), tocJson, result.getWordCount());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** 可直接写入文章实体的渲染结果 */
+  public record Rendered(String contentHash, String html, String summary, String tocJson, int wordCount) {}
+}
@@ -0,0 +1,184 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.dto.ArticleViewRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 阅读记录异步写入
+ *
+ * <p>阅读/进度上报先按（用户, 文章）合并到有界的内存表中：进度与位置取最新一次上报的值，阅读时长取最大值。
+ * 按固定间隔以批量 {@code INSERT ... ON DUPLICATE KEY UPDATE} 写库；批量失败时逐条写入，违反约束的记录丢弃，
+ * 其它失败（如数据库不可用）的记录放回待写表，与期间的新上报合并后下一轮再写。
+ * 待写条目达到上限时新的（用户, 文章）上报直接丢弃并计数；关闭时写完剩余条目。</p>
+ */
+@Slf4j
+@Component
+public class ReadHistoryIngestor {
+  private static final String UPSERT_SQL =
+      "insert into article_read_history (article_id, user_id, progress, last_position, read_duration, last_read_at, created_at) "
+          + "values (?, ?, coalesce(?, 0), coalesce(?, 0), coalesce(?, 0), ?, ?) "
+          + "on duplicate key update progress = coalesce(?, progress), last_position = coalesce(?, last_position), "
+          + "read_duration = coalesce(?, read_duration), last_read_at = ?";
+
+  private final ConcurrentHashMap<Key, Entry> pending = new ConcurrentHashMap<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+  private final int maxPending;
+  private final Counter coalescedCounter;
+  private final Counter droppedCounter;
+  private final Counter flushedCounter;
+  private final Counter flushFailureCounter;
+
+  public ReadHistoryIngestor(
+      JdbcTemplate jdbcTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.article.read-history.batch-size:500}") int batchSize,
+      @Value("${app.article.read-history.max-pending:50000}") int maxPending) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = Math.max(batchSize, 1);
+    this.maxPending = Math.max(maxPending, 1);
+    Gauge.builder("blog.article.read-history.pending", pending, Map::size)
+        .description("尚未写入数据库的阅读记录数")
+        .register(meterRegistry);
+    this.coalescedCounter =
+        Counter.builder("blog.article.read-history.coalesced").description("合并到已有待写记录的上报次数").register(meterRegistry);
+    this.droppedCounter =
+        Counter.builder("blog.article.read-history.dropped").description("待写记录已满而丢弃的上报次数").register(meterRegistry);
+    this.flushedCounter =
+        Counter.builder("blog.article.read-history.flushed").description("已写入数据库的阅读记录数").register(meterRegistry);
+    this.flushFailureCounter =
+        Counter.builder("blog.article.read-history.flush.failures").description("阅读记录写入失败条数").register(meterRegistry);
+  }
+
+  public void record(Long userId, Long articleId, ArticleViewRequest request) {
+    Key key = new Key(userId, articleId);
+    if (pending.size() >= maxPending && !pending.containsKey(key)) {
+      droppedCounter.increment();
+      return;
+    }
+    Entry entry =
+        request == null
+            ? new Entry(null, null, null, LocalDateTime.now())
+            : new Entry(request.getProgress(), request.getLastPosition(), request.getReadDuration(), LocalDateTime.now());
+    if (pending.merge(key, entry, Entry::then) != entry) {
+      coalescedCounter.increment();
+    }
+  }
+
+  public int pendingSize() {
+    return pending.size();
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.article.read-history.flush-interval-ms:3000}",
+      fixedDelayString = "${app.article.read-history.flush-interval-ms:3000}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<Key> keys = new ArrayList<>(batchSize);
+      List<Entry> entries = new ArrayList<>(batchSize);
+      for (Key key : pending.keySet()) {
+        Entry entry = pending.remove(key);
+        if (entry == null) {
+          continue;
+        }
+        keys.add(key);
+        entries.add(entry);
+        if (keys.size() == batchSize) {
+          write(keys, entries);
+          keys.clear();
+          entries.clear();
+        }
+      }
+      if (!keys.isEmpty()) {
+        write(keys, entries);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void drain() {
+    flush();
+  }
+
+  private void write(List<Key> keys, List<Entry> entries) {
+    List<Object[]> args = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      args.add(toArgs(keys.get(i), entries.get(i)));
+    }
+    try {
+      jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+      flushedCounter.increment(args.size());
+      return;
+    } catch (RuntimeException e) {
+      log.warn("read_history_batch_failed: rows={}", args.size(), e);
+    }
+    // 逐条写入，隔离个别无法写入的记录（如用户或文章已被删除）
+    for (int i = 0; i < args.size(); i++) {
+      try {
+        jdbcTemplate.update(UPSERT_SQL, args.get(i));
+        flushedCounter.increment();
+      } catch (DataIntegrityViolationException e) {
+        flushFailureCounter.increment();
+        log.warn("read_history_write_failed: userId={}, articleId={}", keys.get(i).userId(), keys.get(i).articleId(), e);
+      } catch (RuntimeException e) {
+        flushFailureCounter.increment(args.size() - i);
+        log.warn("read_history_flush_deferred: rows={}", args.size() - i, e);
+        for (int j = i; j < args.size(); j++) {
+          pending.merge(keys.get(j), entries.get(j), (current, failed) -> failed.then(current));
+        }
+        return;
+      }
+    }
+  }
+
+  private static Object[] toArgs(Key key, Entry entry) {
+    Timestamp lastReadAt = Timestamp.valueOf(entry.lastReadAt());
+    return new Object[] {
+      key.articleId(),
+      key.userId(),
+      entry.progress(),
+      entry.lastPosition(),
+      entry.readDuration(),
+      lastReadAt,
+      lastReadAt,
+      entry.progress(),
+      entry.lastPosition(),
+      entry.readDuration(),
+      lastReadAt
+    };
+  }
+
+  private record Key(Long userId, Long articleId) {}
+
+  /** 一个（用户, 文章）的合并结果，未上报的字段为 null，写库时保留原值 */
+  private record Entry(BigDecimal progress, Integer lastPosition, Integer readDuration, LocalDateTime lastReadAt) {
+    Entry then(Entry next) {
+      return new Entry(
+          next.progress != null ? next.progress : progress,
+          next.lastPosition != null ? next.lastPosition : lastPosition,
+          readDuration == null || (next.readDuration != null && next.readDuration > readDuration) ? next.readDuration : readDuration,
+          next.lastReadAt.isAfter(lastReadAt) ? next.lastReadAt : lastReadAt);
+    }
+  }
+}
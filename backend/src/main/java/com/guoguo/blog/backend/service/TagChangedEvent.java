@@ -0,0 +1,15 @@
+package com.guoguo.blog.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 标签变更事件
+ *
+ * <p>标签创建、更新、删除后发布，携带变更的标签ID，供标签字典与文章详情缓存在事务提交后失效。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class TagChangedEvent {
+  private final Long tagId;
+}
@@ -0,0 +1,180 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.dto.TagDTO;
+import com.guoguo.blog.backend.entity.Tag;
+import com.guoguo.blog.backend.repository.TagRepository;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 标签字典
+ *
+ * <p>全部标签按ID缓存为 {@link TagDTO}（不含关注状态），并预先排好全部、热门、推荐三个列表。
+ * 标签变更事务提交后失效，下次读取时整体重新加载；加载期间再次失效时不发布旧数据。
+ * 仅文章数变化时按ID回读受影响标签的当前文章数并替换快照，与加载串行执行，不整体重载。
+ * 返回的对象为共享实例，调用方不应修改，需要设置关注状态时先复制。</p>
+ */
+@Component
+public class TagDictionary {
+  private static final Comparator<TagDTO> BY_ARTICLE_COUNT =
+      Comparator.comparing((TagDTO t) -> t.getArticleCount() == null ? 0 : t.getArticleCount())
+          .thenComparing(TagDTO::getId)
+          .reversed();
+
+  private final TagRepository tagRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot snapshot;
+
+  public TagDictionary(TagRepository tagRepository, JdbcTemplate jdbcTemplate) {
+    this.tagRepository = tagRepository;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public TagDTO get(Long id) {
+    return current().byId().get(id);
+  }
+
+  /** 全部标签（按ID升序）。 */
+  public List<TagDTO> all() {
+    return current().all();
+  }
+
+  /** 启用的标签，按文章数降序。 */
+  public List<TagDTO> popular(int limit) {
+    List<TagDTO> list = current().popular();
+    return list.subList(0, Math.min(Math.max(limit, 1), list.size()));
+  }
+
+  /** 启用的推荐标签，按文章数降序。 */
+  public List<TagDTO> recommended(int limit) {
+    List<TagDTO> list = current().recommended();
+    return list.subList(0, Math.min(Math.max(limit, 1), list.size()));
+  }
+
+  public void invalidate() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    invalidate();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onArticleCountsChanged(ArticleCountsChangedEvent event) {
+    refreshArticleCounts(event.getTagIds());
+  }
+
+  /**
+   * 回读指定标签的文章数并替换到当前快照；未加载快照时无需处理，下次读取整体加载。
+   */
+  public void refreshArticleCounts(Set<Long> tagIds) {
+    if (tagIds.isEmpty() || snapshot == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      long refreshing = generation.get();
+      Snapshot current = snapshot;
+      if (current == null) {
+        return;
+      }
+      String placeholders = String.join(",", Collections.nCopies(tagIds.size(), "?"));
+      Map<Long, Integer> counts = new HashMap<>();
+      jdbcTemplate.query(
+          "select id, article_count from tags where id in (" + placeholders + ")",
+          rs -> {
+            counts.put(rs.getLong("id"), rs.getObject("article_count", Integer.class));
+          },
+          tagIds.toArray());
+      Map<Long, TagDTO> byId = new LinkedHashMap<>(current.byId().size());
+      for (TagDTO tag : current.all()) {
+        byId.put(
+            tag.getId(),
+            counts.containsKey(tag.getId()) ? tag.toBuilder().articleCount(counts.get(tag.getId())).build() : tag);
+      }
+      if (generation.get() == refreshing) {
+        snapshot = toSnapshot(byId);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public TagDTO toTagDTO(Tag tag) {
+    return TagDTO.builder()
+        .id(tag.getId())
+        .name(tag.getName())
+        .slug(tag.getSlug())
+        .description(tag.getDescription())
+        .icon(tag.getIcon())
+        .color(tag.getColor())
+        .articleCount(tag.getArticleCount())
+        .viewCount(tag.getViewCount())
+        .recommended(tag.getRecommended())
+        .hot(tag.getHot())
+        .system(tag.getSystem())
+        .enabled(tag.getEnabled())
+        .style(tag.getStyle())
+        .createdAt(tag.getCreatedAt())
+        .build();
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    lock.lock();
+    try {
+      current = snapshot;
+      if (current != null) {
+        return current;
+      }
+      long loading = generation.get();
+      current = load();
+      if (generation.get() == loading) {
+        snapshot = current;
+      }
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Snapshot load() {
+    Map<Long, TagDTO> byId = new LinkedHashMap<>();
+    for (Tag tag : tagRepository.findAll(Sort.by(Sort.Direction.ASC, "id"))) {
+      byId.put(tag.getId(), toTagDTO(tag));
+    }
+    return toSnapshot(byId);
+  }
+
+  private static Snapshot toSnapshot(Map<Long, TagDTO> byId) {
+    List<TagDTO> all = List.copyOf(byId.values());
+    List<TagDTO> popular = all.stream().filter(TagDictionary::isEnabled).sorted(BY_ARTICLE_COUNT).toList();
+    List<TagDTO> recommended = popular.stream().filter(t -> Boolean.TRUE.equals(t.getRecommended())).toList();
+    return new Snapshot(Map.copyOf(byId), all, popular, recommended);
+  }
+
+  private static boolean isEnabled(TagDTO tag) {
+    return tag.getEnabled() == null || Boolean.TRUE.equals(tag.getEnabled());
+  }
+
+  private record Snapshot(Map<Long, TagDTO> byId, List<TagDTO> all, List<TagDTO> popular, List<TagDTO> recommended) {}
+}
@@ -0,0 +1,80 @@
+package com.guoguo.blog.backend.service;
+
+import static com.guoguo.blog.backend.repository.ArticleSpecifications.publicArticles;
+
+import com.guoguo.blog.backend.dto.ArticleListItem;
+import com.guoguo.blog.backend.repository.ArticleListRow;
+import com.guoguo.blog.backend.repository.ArticleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 热门文章快照
+ *
+ * <p>定期取 {@link TrendingEngine} 的前 N 篇文章组装为列表项并整体替换，接口直接读取内存快照。
+ * 热度数据不足 N 篇时（如刚启动），按阅读数补齐。</p>
+ */
+@Component
+public class TrendingArticleSnapshot {
+  private final TrendingEngine trendingEngine;
+  private final ArticleRepository articleRepository;
+  private final ArticleListAssembler articleListAssembler;
+  private final int topN;
+  private volatile List<ArticleListItem> snapshot;
+
+  public TrendingArticleSnapshot(
+      TrendingEngine trendingEngine,
+      ArticleRepository articleRepository,
+      ArticleListAssembler articleListAssembler,
+      MeterRegistry meterRegistry,
+      @Value("${app.article.trending.top-n:100}") int topN) {
+    this.trendingEngine = trendingEngine;
+    this.articleRepository = articleRepository;
+    this.articleListAssembler = articleListAssembler;
+    this.topN = Math.max(topN, 1);
+    Gauge.builder("blog.article.trending.tracked", trendingEngine, TrendingEngine::trackedArticles)
+        .description("参与热度计算的文章数")
+        .register(meterRegistry);
+  }
+
+  /** 需在事务内调用：首次访问时同步生成快照。 */
+  public List<ArticleListItem> top(int limit) {
+    List<ArticleListItem> current = snapshot;
+    if (current == null) {
+      refresh();
+      current = snapshot;
+    }
+    return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.article.trending.refresh-interval-ms:60000}",
+      fixedDelayString = "${app.article.trending.refresh-interval-ms:60000}")
+  @Transactional(readOnly = true)
+  public void refresh() {
+    List<Long> rankedIds = trendingEngine.topArticleIds(topN);
+    List<ArticleListRow> ranked = new ArrayList<>(articleRepository.findListRowsByIds(rankedIds, publicArticles()));
+    if (ranked.size() < topN) {
+      Set<Long> ids = new HashSet<>(rankedIds);
+      Sort sort = Sort.by(Sort.Direction.DESC, "viewCount").and(Sort.by(Sort.Direction.DESC, "id"));
+      for (ArticleListRow row : articleRepository.findListRows(publicArticles(), sort, topN)) {
+        if (ranked.size() >= topN) {
+          break;
+        }
+        if (!ids.contains(row.getId())) {
+          ranked.add(row);
+        }
+      }
+    }
+    snapshot = List.copyOf(articleListAssembler.toListItems(ranked));
+  }
+}
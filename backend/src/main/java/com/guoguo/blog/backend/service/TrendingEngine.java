@@ -0,0 +1,151 @@
+package com.guoguo.blog.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 文章热度计算
+ *
+ * <p>每篇文章维护一个按时间分桶的环形计数（阅读、点赞、收藏按权重累加），热度为窗口内各桶计数按半衰期指数衰减后的和。
+ * 计数为近似值：桶轮转与并发累加之间不加锁，极少量增量可能丢失。点赞、收藏在事务提交后计入。</p>
+ */
+@Component
+public class TrendingEngine {
+  private final ConcurrentHashMap<Long, Buckets> counters = new ConcurrentHashMap<>();
+  private final long bucketMillis;
+  private final int bucketCount;
+  private final double halfLifeBuckets;
+  private final int maxTrackedArticles;
+  private final long viewWeight;
+  private final long likeWeight;
+  private final long collectWeight;
+
+  public TrendingEngine(
+      @Value("${app.article.trending.bucket:1h}") Duration bucket,
+      @Value("${app.article.trending.window:72h}") Duration window,
+      @Value("${app.article.trending.half-life:24h}") Duration halfLife,
+      @Value("${app.article.trending.max-tracked-articles:100000}") int maxTrackedArticles,
+      @Value("${app.article.trending.weights.view:1}") long viewWeight,
+      @Value("${app.article.trending.weights.like:5}") long likeWeight,
+      @Value("${app.article.trending.weights.collect:8}") long collectWeight) {
+    this.bucketMillis = Math.max(bucket.toMillis(), 1000L);
+    this.bucketCount = (int) Math.max(window.toMillis() / bucketMillis, 1L);
+    this.halfLifeBuckets = Math.max((double) halfLife.toMillis() / bucketMillis, 0.001d);
+    this.maxTrackedArticles = Math.max(maxTrackedArticles, 1);
+    this.viewWeight = viewWeight;
+    this.likeWeight = likeWeight;
+    this.collectWeight = collectWeight;
+  }
+
+  public void recordView(Long articleId) {
+    record(articleId, viewWeight);
+  }
+
+  public void recordLike(Long articleId, boolean liked) {
+    record(articleId, liked ? likeWeight : -likeWeight);
+  }
+
+  public void recordCollect(Long articleId, boolean collected) {
+    record(articleId, collected ? collectWeight : -collectWeight);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onInteractionChanged(ArticleInteractionChangedEvent event) {
+    if (event.getKind() == ArticleInteractionChangedEvent.Kind.LIKE) {
+      recordLike(event.getArticleId(), event.isAdded());
+    } else {
+      recordCollect(event.getArticleId(), event.isAdded());
+    }
+  }
+
+  /**
+   * 计算当前热度最高的 N 篇文章（按热度降序），并清理窗口内已无计数的文章。
+   */
+  public List<Long> topArticleIds(int n) {
+    long epoch = currentEpoch();
+    PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+    for (Map.Entry<Long, Buckets> entry : counters.entrySet()) {
+      double score = entry.getValue().score(epoch);
+      if (score <= 0d) {
+        if (entry.getValue().isExpired(epoch)) {
+          counters.remove(entry.getKey(), entry.getValue());
+        }
+        continue;
+      }
+      heap.offer(Map.entry(entry.getKey(), score));
+      if (heap.size() > n) {
+        heap.poll();
+      }
+    }
+    List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+    ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+    return ranked.stream().map(Map.Entry::getKey).toList();
+  }
+
+  public int trackedArticles() {
+    return counters.size();
+  }
+
+  private void record(Long articleId, long weight) {
+    if (articleId == null || weight == 0L) {
+      return;
+    }
+    Buckets buckets = counters.get(articleId);
+    if (buckets == null) {
+      if (weight < 0L || counters.size() >= maxTrackedArticles) {
+        return;
+      }
+      buckets = counters.computeIfAbsent(articleId, id -> new Buckets());
+    }
+    buckets.add(currentEpoch(), weight);
+  }
+
+  private long currentEpoch() {
+    return System.currentTimeMillis() / bucketMillis;
+  }
+
+  private class Buckets {
+    private final AtomicLongArray epochs = new AtomicLongArray(bucketCount);
+    private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+
+    void add(long epoch, long weight) {
+      int slot = (int) (epoch % bucketCount);
+      long stamp = epochs.get(slot);
+      if (stamp < epoch && epochs.compareAndSet(slot, stamp, epoch)) {
+        counts.set(slot, 0L);
+      }
+      counts.addAndGet(slot, weight);
+    }
+
+    double score(long epoch) {
+      double score = 0d;
+      for (int i = 0; i < bucketCount; i++) {
+        long age = epoch - epochs.get(i);
+        if (age < 0 || age >= bucketCount) {
+          continue;
+        }
+        score += counts.get(i) * Math.pow(0.5d, age / halfLifeBuckets);
+      }
+      return Math.max(score, 0d);
+    }
+
+    boolean isExpired(long epoch) {
+      for (int i = 0; i < bucketCount; i++) {
+        if (epoch - epochs.get(i) < bucketCount) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
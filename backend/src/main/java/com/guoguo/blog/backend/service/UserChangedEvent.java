@@ -0,0 +1,15 @@
+package com.guoguo.blog.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 用户变更事件
+ *
+ * <p>用户资料、角色或启用/锁定状态变更后发布，供认证主体缓存、文章详情缓存等在事务提交后失效。</p>
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+  private final Long userId;
+}
@@ -8,6 +8,7 @@ import com.guoguo.blog.backend.repository.UserRepository;
 import com.guoguo.blog.backend.repository.UserRoleRepository;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
   private final UserRoleRepository userRoleRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional(readOnly = true)
@@ -55,6 +57,7 @@ public class UserServiceImpl implements UserService {
     }
 
     userRepository.save(user);
+    eventPublisher.publishEvent(new UserChangedEvent(id));
     return getUserById(id);
   }
 }
@@ -0,0 +1,72 @@
+package com.guoguo.blog.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 字符串布隆过滤器
+ *
+ * <p>{@link #mightContain} 为 false 时一定未加入过；为 true 时可能误判，误判率由预期元素数与目标误判率决定。
+ * 位数组基于 {@link AtomicLongArray}，加入与查询均无锁，可并发调用；不支持删除。</p>
+ */
+public final class BloomFilter {
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(expectedInsertions, 1L);
+    double p = Math.min(Math.max(falsePositiveRate, 1e-9d), 0.5d);
+    long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.min(Math.max((m + 63) / 64, 1L), Integer.MAX_VALUE - 8L);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = words * 64L;
+    this.hashCount = (int) Math.max(Math.round((double) bitCount / n * Math.log(2)), 1L);
+  }
+
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = index(h1 + (long) i * h2);
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+      if ((bits.get(word) & mask) == 0) {
+        bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+      }
+    }
+  }
+
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = index(h1 + (long) i * h2);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long index(long combined) {
+    return (combined & Long.MAX_VALUE) % bitCount;
+  }
+
+  /** FNV-1a 64 位哈希后做一次 MurmurHash3 fmix64 混合。 */
+  private static long hash(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
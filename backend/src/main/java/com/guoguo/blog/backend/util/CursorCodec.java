@@ -0,0 +1,69 @@
+package com.guoguo.blog.backend.util;
+
+import com.guoguo.blog.backend.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 游标编解码
+ *
+ * <p>游标为 {@code 排序字段|方向|排序值|id} 的 Base64url 编码，对客户端不透明；排序值为 null 时编码为空串，
+ * 解码后 {@link Cursor#getValue()} 为 null。</p>
+ */
+public final class CursorCodec {
+  private CursorCodec() {}
+
+  public static String encode(String field, String direction, Object value, Long id) {
+    String raw = field + "|" + direction + "|" + (value == null ? "" : value) + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static Cursor decode(String token, String expectedField, String expectedDirection) {
+    String raw;
+    try {
+      raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw invalid();
+    }
+    String[] parts = raw.split("\\|", -1);
+    if (parts.length != 4 || !parts[0].equals(expectedField) || !parts[1].equals(expectedDirection)) {
+      throw invalid();
+    }
+    try {
+      return new Cursor(parts[2].isEmpty() ? null : parts[2], Long.parseLong(parts[3]));
+    } catch (NumberFormatException e) {
+      throw invalid();
+    }
+  }
+
+  public static LocalDateTime parseTime(String value) {
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw invalid();
+    }
+  }
+
+  public static Long parseLong(String value) {
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw invalid();
+    }
+  }
+
+  private static BusinessException invalid() {
+    return new BusinessException("INVALID_CURSOR", "分页游标无效");
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Cursor {
+    private final String value;
+    private final Long id;
+  }
+}
@@ -0,0 +1,120 @@
+package com.guoguo.blog.backend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按顶层块增量渲染 Markdown
+ *
+ * <p>在不可能跨越空行的位置把正文切成顶层块，逐块渲染并按块内容缓存，编辑后只有变化的块需要重新解析。
+ * 切分偏保守：空行后以缩进或列表标记开头的行、围栏代码块内部都不切分；含链接引用定义或 HTML 块（结果与全文相关）、
+ * 或标题锚点重复（全文渲染会追加序号）时退回整篇渲染。输出与 {@link MarkdownUtil#render} 完全一致。</p>
+ */
+public class MarkdownBlockRenderer {
+  private static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,})");
+  private static final Pattern LIST_MARKER = Pattern.compile("^([-+*]|\\d{1,9}[.)])([ \\t]|$)");
+  private static final Pattern DOCUMENT_SCOPED = Pattern.compile("(?m)^ {0,3}(\\[[^\\]\\n]+\\]:|<)");
+
+  private final Cache<String, RenderedMarkdown> blocks;
+  private final int minLength;
+
+  /**
+   * @param maxCachedChars 块缓存容量（按块源文与 HTML 的字符数计）
+   * @param minLength 正文短于该长度时直接整篇渲染
+   */
+  public MarkdownBlockRenderer(long maxCachedChars, int minLength) {
+    this.blocks =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(maxCachedChars, 1L))
+            .weigher((String block, RenderedMarkdown rendered) -> block.length() + rendered.getHtml().length())
+            .build();
+    this.minLength = Math.max(minLength, 0);
+  }
+
+  public RenderedMarkdown render(String markdown, int summaryLength) {
+    if (markdown == null || markdown.length() < minLength || DOCUMENT_SCOPED.matcher(markdown).find()) {
+      return MarkdownUtil.render(markdown, summaryLength);
+    }
+    StringBuilder html = new StringBuilder(markdown.length() + (markdown.length() >> 2));
+    List<RenderedMarkdown.TocEntry> toc = new ArrayList<>();
+    Set<String> anchors = new HashSet<>();
+    int wordCount = 0;
+    for (String block : split(markdown)) {
+      RenderedMarkdown rendered = blocks.get(block, b -> MarkdownUtil.render(b, 0));
+      for (RenderedMarkdown.TocEntry entry : rendered.getToc()) {
+        if (!anchors.add(entry.getAnchor())) {
+          return MarkdownUtil.render(markdown, summaryLength);
+        }
+      }
+      html.append(rendered.getHtml());
+      toc.addAll(rendered.getToc());
+      wordCount += rendered.getWordCount();
+    }
+    return new RenderedMarkdown(html.toString(), MarkdownUtil.extractSummary(markdown, summaryLength), List.copyOf(toc), wordCount);
+  }
+
+  /**
+   * 在空行处切分为顶层块；每块包含其后的空行，块拼接后等于原文。
+   */
+  static List<String> split(String markdown) {
+    List<String> result = new ArrayList<>();
+    int blockStart = 0;
+    boolean afterBlank = false;
+    char fenceChar = 0;
+    int fenceLength = 0;
+    int lineStart = 0;
+    while (lineStart < markdown.length()) {
+      int lineEnd = markdown.indexOf('\n', lineStart);
+      lineEnd = lineEnd < 0 ? markdown.length() : lineEnd + 1;
+      String line = markdown.substring(lineStart, lineEnd);
+
+      if (fenceChar != 0) {
+        if (closesFence(line, fenceChar, fenceLength)) {
+          fenceChar = 0;
+        }
+      } else if (line.isBlank()) {
+        afterBlank = true;
+      } else {
+        if (afterBlank && startsBlock(line)) {
+          result.add(markdown.substring(blockStart, lineStart));
+          blockStart = lineStart;
+        }
+        afterBlank = false;
+        Matcher fence = FENCE.matcher(line);
+        if (fence.find() && (fence.group(1).charAt(0) == '~' || line.indexOf('`', fence.end()) < 0)) {
+          fenceChar = fence.group(1).charAt(0);
+          fenceLength = fence.group(1).length();
+        }
+      }
+      lineStart = lineEnd;
+    }
+    if (blockStart < markdown.length()) {
+      result.add(markdown.substring(blockStart));
+    }
+    return result;
+  }
+
+  private static boolean startsBlock(String line) {
+    char first = line.charAt(0);
+    return first != ' ' && first != '\t' && !LIST_MARKER.matcher(line).find();
+  }
+
+  private static boolean closesFence(String line, char fenceChar, int fenceLength) {
+    int i = 0;
+    while (i < 3 && i < line.length() && line.charAt(i) == ' ') {
+      i++;
+    }
+    int run = 0;
+    while (i < line.length() && line.charAt(i) == fenceChar) {
+      i++;
+      run++;
+    }
+    return run >= fenceLength && line.substring(i).isBlank();
+  }
+}
@@ -0,0 +1,358 @@
+package com.guoguo.blog.backend.util;
+
+import java.text.BreakIterator;
+import java.util.Locale;
+
+/**
+ * Markdown 摘要提取
+ *
+ * <p>按行单遍扫描原文：跳过围栏/缩进代码块、分隔线、表格分隔行，去掉标题、引用、列表标记以及行内强调、链接地址、HTML 标签，
+ * 空白折叠为单个空格；收集到足够字符即停止，不解析整篇文档。截断位置落在字素边界上，不会拆开代理对或组合字符。</p>
+ */
+final class MarkdownSummaryExtractor {
+  /** 多收集的字符数，用于回退到字素边界 */
+  private static final int SLACK = 16;
+
+  private final String src;
+  private final int limit;
+  private final StringBuilder out;
+  private boolean pendingSpace;
+  private char fence;
+  private int fenceLength;
+  private boolean paragraph;
+  private boolean list;
+  private boolean heading;
+
+  private MarkdownSummaryExtractor(String src, int length) {
+    this.src = src;
+    this.limit = length + SLACK;
+    this.out = new StringBuilder(Math.min(limit, src.length()));
+  }
+
+  static String extract(String markdown, int length) {
+    if (markdown == null || markdown.isEmpty() || length <= 0) {
+      return "";
+    }
+    MarkdownSummaryExtractor extractor = new MarkdownSummaryExtractor(markdown, length);
+    extractor.scan();
+    return extractor.truncate(length);
+  }
+
+  private void scan() {
+    int n = src.length();
+    int pos = 0;
+    while (pos < n && out.length() < limit) {
+      int end = src.indexOf('\n', pos);
+      if (end < 0) {
+        end = n;
+      }
+      line(pos, end > pos && src.charAt(end - 1) == '\r' ? end - 1 : end);
+      pos = end + 1;
+    }
+  }
+
+  private String truncate(int length) {
+    if (out.length() <= length) {
+      return out.toString();
+    }
+    String text = out.toString();
+    BreakIterator graphemes = BreakIterator.getCharacterInstance(Locale.ROOT);
+    graphemes.setText(text);
+    int cut = graphemes.isBoundary(length) ? length : graphemes.preceding(length);
+    return text.substring(0, cut).stripTrailing();
+  }
+
+  private void line(int start, int end) {
+    int i = start;
+    int column = 0;
+    while (i < end && (src.charAt(i) == ' ' || src.charAt(i) == '\t')) {
+      column += src.charAt(i) == '\t' ? 4 - column % 4 : 1;
+      i++;
+    }
+    if (fence != 0) {
+      int length = run(i, end, fence);
+      if (column < 4 && length >= fenceLength && isBlank(i + length, end)) {
+        fence = 0;
+      }
+      return;
+    }
+    if (i == end) {
+      paragraph = false;
+      pendingSpace = true;
+      return;
+    }
+    if (column >= 4 && !paragraph && !list) {
+      return;
+    }
+    if (column == 0 && listMarkerEnd(i, end) < 0) {
+      list = false;
+    }
+    if (column < 4 && opensFence(i, end)) {
+      paragraph = false;
+      pendingSpace = true;
+      return;
+    }
+    if (isRule(i, end)) {
+      paragraph = false;
+      pendingSpace = true;
+      return;
+    }
+    heading = false;
+    int from = blockPrefixes(i, end);
+    inline(from, heading ? headingEnd(from, end) : end);
+    paragraph = true;
+    pendingSpace = true;
+  }
+
+  /** 去掉引用、标题、列表（含任务框）标记 */
+  private int blockPrefixes(int i, int end) {
+    while (i < end) {
+      char c = src.charAt(i);
+      if (c == '>') {
+        i = skipSpaces(i + 1, end);
+      } else if (c == '#') {
+        int hashes = run(i, end, '#');
+        if (hashes > 6 || (i + hashes < end && !isSpace(src.charAt(i + hashes)))) {
+          return i;
+        }
+        heading = true;
+        return skipSpaces(i + hashes, end);
+      } else if (listMarkerEnd(i, end) >= 0) {
+        list = true;
+        i = skipSpaces(listMarkerEnd(i, end), end);
+        if (i + 2 < end && src.charAt(i) == '[' && src.charAt(i + 2) == ']' && " xX".indexOf(src.charAt(i + 1)) >= 0) {
+          i = skipSpaces(i + 3, end);
+        }
+      } else {
+        return i;
+      }
+    }
+    return i;
+  }
+
+  /** ATX 标题去掉行尾的闭合 # */
+  private int headingEnd(int start, int end) {
+    int e = end;
+    while (e > start && isSpace(src.charAt(e - 1))) {
+      e--;
+    }
+    int hashes = e;
+    while (hashes > start && src.charAt(hashes - 1) == '#') {
+      hashes--;
+    }
+    return hashes == start || (hashes < e && isSpace(src.charAt(hashes - 1))) ? hashes : e;
+  }
+
+  private void inline(int i, int end) {
+    while (i < end && out.length() < limit) {
+      char c = src.charAt(i);
+      switch (c) {
+        case '\\' -> {
+          if (i + 1 < end && isAsciiPunctuation(src.charAt(i + 1))) {
+            append(src.charAt(i + 1));
+            i += 2;
+          } else {
+            append(c);
+            i++;
+          }
+        }
+        case '`', '*', '~', '[' -> i++;
+        case '_' -> {
+          if (i > 0 && i + 1 < end && Character.isLetterOrDigit(src.charAt(i - 1)) && Character.isLetterOrDigit(src.charAt(i + 1))) {
+            append(c);
+          }
+          i++;
+        }
+        case '!' -> {
+          if (i + 1 >= end || src.charAt(i + 1) != '[') {
+            append(c);
+          }
+          i++;
+        }
+        case ']' -> i = skipLinkTarget(i + 1, end);
+        case '<' -> i = tag(i, end);
+        case '|' -> {
+          pendingSpace = true;
+          i++;
+        }
+        default -> {
+          if (Character.isWhitespace(c)) {
+            pendingSpace = true;
+          } else {
+            append(c);
+          }
+          i++;
+        }
+      }
+    }
+  }
+
+  /** 跳过 {@code (url)} 或 {@code [ref]} */
+  private int skipLinkTarget(int i, int end) {
+    if (i >= end || (src.charAt(i) != '(' && src.charAt(i) != '[')) {
+      return i;
+    }
+    char open = src.charAt(i);
+    char close = open == '(' ? ')' : ']';
+    int depth = 0;
+    for (int j = i; j < end; j++) {
+      char c = src.charAt(j);
+      if (c == '\\') {
+        j++;
+      } else if (c == open) {
+        depth++;
+      } else if (c == close && --depth == 0) {
+        return j + 1;
+      }
+    }
+    return i;
+  }
+
+  /** 自动链接保留地址，HTML 标签整体跳过，其余按普通字符处理 */
+  private int tag(int i, int end) {
+    int close = indexOf('>', i + 1, end);
+    if (close < 0 || i + 1 == close) {
+      append('<');
+      return i + 1;
+    }
+    char first = src.charAt(i + 1);
+    boolean autolink = true;
+    boolean scheme = false;
+    for (int j = i + 1; j < close; j++) {
+      char c = src.charAt(j);
+      if (isSpace(c) || c == '<') {
+        autolink = false;
+        break;
+      }
+      scheme |= c == ':' || c == '@';
+    }
+    if (autolink && scheme) {
+      for (int j = i + 1; j < close; j++) {
+        append(src.charAt(j));
+      }
+      return close + 1;
+    }
+    if (Character.isLetter(first) || first == '/' || first == '!' || first == '?') {
+      return close + 1;
+    }
+    append('<');
+    return i + 1;
+  }
+
+  private void append(char c) {
+    if (pendingSpace && out.length() > 0) {
+      out.append(' ');
+    }
+    pendingSpace = false;
+    out.append(c);
+  }
+
+  /** 分隔线、Setext 标题下划线、表格分隔行 */
+  private boolean isRule(int i, int end) {
+    char first = src.charAt(i);
+    if (first == '-' || first == '*' || first == '_' || first == '=') {
+      int count = 0;
+      boolean uniform = true;
+      for (int j = i; j < end; j++) {
+        char c = src.charAt(j);
+        if (c == first) {
+          count++;
+        } else if (!isSpace(c)) {
+          uniform = false;
+          break;
+        }
+      }
+      if (uniform && (count >= 3 && first != '=' || paragraph && (first == '=' || first == '-'))) {
+        return true;
+      }
+    }
+    boolean pipe = false;
+    boolean dash = false;
+    for (int j = i; j < end; j++) {
+      char c = src.charAt(j);
+      if (c == '|') {
+        pipe = true;
+      } else if (c == '-') {
+        dash = true;
+      } else if (c != ':' && !isSpace(c)) {
+        return false;
+      }
+    }
+    return pipe && dash;
+  }
+
+  /** 围栏开始行：三个以上 ` 或 ~，反引号围栏的信息串中不能再有反引号 */
+  private boolean opensFence(int i, int end) {
+    char c = src.charAt(i);
+    if (c != '`' && c != '~') {
+      return false;
+    }
+    int length = run(i, end, c);
+    if (length < 3 || (c == '`' && indexOf('`', i + length, end) >= 0)) {
+      return false;
+    }
+    fence = c;
+    fenceLength = length;
+    return true;
+  }
+
+  /** 在 [from, end) 内查找字符，不越过当前行 */
+  private int indexOf(char c, int from, int end) {
+    for (int j = from; j < end; j++) {
+      if (src.charAt(j) == c) {
+        return j;
+      }
+    }
+    return -1;
+  }
+
+  /** 列表标记（{@code -}、{@code *}、{@code +} 或 {@code 1.}、{@code 1)}）之后的位置，不是列表项时返回 -1 */
+  private int listMarkerEnd(int i, int end) {
+    char c = src.charAt(i);
+    int j = i;
+    if (c == '-' || c == '*' || c == '+') {
+      j++;
+    } else {
+      while (j < end && j - i < 9 && Character.isDigit(src.charAt(j))) {
+        j++;
+      }
+      if (j == i || j >= end || (src.charAt(j) != '.' && src.charAt(j) != ')')) {
+        return -1;
+      }
+      j++;
+    }
+    return j == end || isSpace(src.charAt(j)) ? j : -1;
+  }
+
+  private int run(int i, int end, char c) {
+    int j = i;
+    while (j < end && src.charAt(j) == c) {
+      j++;
+    }
+    return j - i;
+  }
+
+  private boolean isBlank(int i, int end) {
+    for (int j = i; j < end; j++) {
+      if (!isSpace(src.charAt(j))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int skipSpaces(int i, int end) {
+    while (i < end && isSpace(src.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t';
+  }
+
+  private static boolean isAsciiPunctuation(char c) {
+    return c < 128 && !Character.isLetterOrDigit(c) && c > ' ' && c != 127;
+  }
+}
@@ -1,11 +1,24 @@
 package com.guoguo.blog.backend.util;
 
+import com.vladsch.flexmark.ast.Code;
+import com.vladsch.flexmark.ast.FencedCodeBlock;
+import com.vladsch.flexmark.ast.HardLineBreak;
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.ast.IndentedCodeBlock;
+import com.vladsch.flexmark.ast.SoftLineBreak;
+import com.vladsch.flexmark.ast.Text;
 import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
 import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
 import com.vladsch.flexmark.ext.tables.TablesExtension;
 import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.renderer.HeaderIdGenerator;
 import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Block;
+import com.vladsch.flexmark.util.ast.Document;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.TextCollectingVisitor;
 import com.vladsch.flexmark.util.data.MutableDataSet;
+import java.util.ArrayList;
 import java.util.List;
 
 public final class MarkdownUtil {
@@ -28,15 +41,102 @@ public final class MarkdownUtil {
     return RENDERER.render(PARSER.parse(markdown));
   }
 
-  public static String extractSummary(String markdown, int length) {
-    if (markdown == null || markdown.isBlank() || length <= 0) {
+  /**
+   * 只解析一次，由同一棵语法树生成 HTML、目录与字数（中日韩字符按字计，其余按词计）；摘要见 {@link #extractSummary}。
+   * HTML 与 {@link #toHtml} 一致，标题不带 id；目录锚点在语法树上生成，供前端按序设置到非空标题上。
+   */
+  public static RenderedMarkdown render(String markdown, int summaryLength) {
+    if (markdown == null) {
+      return new RenderedMarkdown(null, "", List.of(), 0);
+    }
+    Document document = PARSER.parse(markdown);
+    new HeaderIdGenerator().generateIds(document);
+
+    StringBuilder text = new StringBuilder(Math.min(markdown.length(), 1 << 16));
+    List<RenderedMarkdown.TocEntry> toc = new ArrayList<>();
+    collect(document, text, toc);
+    return new RenderedMarkdown(
+        RENDERER.render(document), extractSummary(markdown, summaryLength), List.copyOf(toc), countWords(collapseWhitespace(text)));
+  }
+
+  public static String toPlainText(String markdown) {
+    if (markdown == null || markdown.isBlank()) {
       return "";
     }
-    String text = markdown.replaceAll("```[\\s\\S]*?```", "").replaceAll("[#>*_`\\-]", " ").replaceAll("\\s+", " ").trim();
-    if (text.length() <= length) {
-      return text;
+    return new TextCollectingVisitor().collectAndGetText(PARSER.parse(markdown));
+  }
+
+  /**
+   * 单遍扫描原文提取前 {@code length} 个可见字符作为摘要，跳过代码块与标记，凑够即停止；不会截断在字素中间。
+   */
+  public static String extractSummary(String markdown, int length) {
+    return MarkdownSummaryExtractor.extract(markdown, length);
+  }
+
+  private static void collect(Node node, StringBuilder text, List<RenderedMarkdown.TocEntry> toc) {
+    for (Node child = node.getFirstChild(); child != null; child = child.getNext()) {
+      if (child instanceof FencedCodeBlock || child instanceof IndentedCodeBlock) {
+        continue;
+      }
+      if (child instanceof Heading heading) {
+        String title = new TextCollectingVisitor().collectAndGetText(heading).trim();
+        if (!title.isEmpty()) {
+          toc.add(new RenderedMarkdown.TocEntry(heading.getLevel(), title, heading.getAnchorRefId()));
+        }
+      }
+      if (child instanceof Text || child instanceof Code) {
+        text.append(child instanceof Code code ? code.getText() : child.getChars());
+      } else if (child instanceof SoftLineBreak || child instanceof HardLineBreak) {
+        text.append(' ');
+      } else {
+        collect(child, text, toc);
+        if (child instanceof Block) {
+          text.append(' ');
+        }
+      }
+    }
+  }
+
+  private static String collapseWhitespace(CharSequence text) {
+    StringBuilder out = new StringBuilder(text.length());
+    boolean space = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        space = out.length() > 0;
+        continue;
+      }
+      if (space) {
+        out.append(' ');
+        space = false;
+      }
+      out.append(c);
     }
-    return text.substring(0, length);
+    return out.toString();
   }
-}
 
+  private static int countWords(String text) {
+    int count = 0;
+    boolean inWord = false;
+    for (int i = 0; i < text.length(); ) {
+      int cp = text.codePointAt(i);
+      i += Character.charCount(cp);
+      Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+      if (script == Character.UnicodeScript.HAN
+          || script == Character.UnicodeScript.HIRAGANA
+          || script == Character.UnicodeScript.KATAKANA
+          || script == Character.UnicodeScript.HANGUL) {
+        count++;
+        inWord = false;
+      } else if (Character.isLetterOrDigit(cp)) {
+        if (!inWord) {
+          count++;
+          inWord = true;
+        }
+      } else {
+        inWord = false;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,23 @@
+package com.guoguo.blog.backend.util;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** 一次解析得到的 Markdown 渲染结果：HTML、摘要、目录与字数 */
+@Getter
+@AllArgsConstructor
+public class RenderedMarkdown {
+  private final String html;
+  private final String summary;
+  private final List<TocEntry> toc;
+  private final int wordCount;
+
+  @Getter
+  @AllArgsConstructor
+  public static class TocEntry {
+    private final int level;
+    private final String text;
+    private final String anchor;
+  }
+}
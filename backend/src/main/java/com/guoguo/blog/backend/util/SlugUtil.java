@@ -1,27 +1,138 @@
 package com.guoguo.blog.backend.util;
 
 import java.text.Normalizer;
-import java.util.Locale;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
 
+/**
+ * 由标题生成 slug
+ *
+ * <p>逐字符单遍处理：ASCII 字母数字转小写保留，空白与连字符的连续片段合并为一个连字符（首尾空白去掉），
+ * 其它 ASCII 符号丢弃；汉字转为不带声调的拼音，每个字一节；其它非 ASCII 字符按 NFKD 分解后取其中的 ASCII 部分。
+ * 不含汉字的输入结果与原先“NFKD + 正则替换”的实现一致。结果为空时返回 {@code article}。</p>
+ */
 public final class SlugUtil {
+  private static final String FALLBACK = "article";
+  private static final int CJK_START = 0x4E00;
+  private static final int CJK_END = 0x9FFF;
+  private static final int NO_SEPARATOR = 0;
+  private static final int SPACE = 1;
+  private static final int DASH = 2;
+
   private SlugUtil() {}
 
   public static String toSlug(String input) {
     if (input == null) {
       return null;
     }
-    String normalized = Normalizer.normalize(input, Normalizer.Form.NFKD);
-    String slug =
-        normalized
-            .toLowerCase(Locale.ROOT)
-            .replaceAll("[^a-z0-9\\s-]", "")
-            .trim()
-            .replaceAll("\\s+", "-")
-            .replaceAll("-{2,}", "-");
-    if (slug.isBlank()) {
-      return "article";
-    }
-    return slug;
+    Builder builder = new Builder(input.length() + 8);
+    for (int i = 0; i < input.length(); ) {
+      int codePoint = input.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (codePoint < 0x80) {
+        builder.ascii((char) codePoint);
+      } else if (!builder.han(codePoint)) {
+        String decomposed = Normalizer.normalize(new String(Character.toChars(codePoint)), Normalizer.Form.NFKD);
+        for (int j = 0; j < decomposed.length(); ) {
+          int part = decomposed.codePointAt(j);
+          j += Character.charCount(part);
+          if (part < 0x80) {
+            builder.ascii((char) part);
+          } else {
+            builder.han(part);
+          }
+        }
+      }
+    }
+    return builder.finish();
   }
-}
 
+  private static final class Builder {
+    private final StringBuilder out;
+    private int pending = NO_SEPARATOR;
+
+    Builder(int capacity) {
+      this.out = new StringBuilder(capacity);
+    }
+
+    void ascii(char c) {
+      if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+        append(c);
+      } else if (c >= 'A' && c <= 'Z') {
+        append((char) (c + ('a' - 'A')));
+      } else if (c == '-') {
+        pending = DASH;
+      } else if (c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r') {
+        pending = Math.max(pending, SPACE);
+      }
+    }
+
+    /** 汉字按拼音追加为独立一节；不是汉字时返回 false。 */
+    boolean han(int codePoint) {
+      String pinyin = Pinyin.of(codePoint);
+      if (pinyin == null) {
+        return false;
+      }
+      pending = Math.max(pending, SPACE);
+      for (int i = 0; i < pinyin.length(); i++) {
+        ascii(pinyin.charAt(i));
+      }
+      pending = Math.max(pending, SPACE);
+      return true;
+    }
+
+    private void append(char c) {
+      if (pending == DASH || (pending == SPACE && out.length() > 0)) {
+        out.append('-');
+      }
+      pending = NO_SEPARATOR;
+      out.append(c);
+    }
+
+    String finish() {
+      if (pending == DASH) {
+        out.append('-');
+      }
+      return out.length() == 0 ? FALLBACK : out.toString();
+    }
+  }
+
+  /** 常用汉字区（U+4E00–U+9FFF）的拼音首次使用时整表预先计算，其余汉字逐次查询。 */
+  private static final class Pinyin {
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+    private static final String[] TABLE;
+
+    static {
+      FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+      FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+      FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+      TABLE = new String[CJK_END - CJK_START + 1];
+      for (int c = CJK_START; c <= CJK_END; c++) {
+        TABLE[c - CJK_START] = lookup((char) c);
+      }
+    }
+
+    static String of(int codePoint) {
+      if (codePoint >= CJK_START && codePoint <= CJK_END) {
+        return TABLE[codePoint - CJK_START];
+      }
+      if (codePoint > Character.MAX_VALUE || Character.UnicodeScript.of(codePoint) != Character.UnicodeScript.HAN) {
+        return null;
+      }
+      return lookup((char) codePoint);
+    }
+
+    private static String lookup(char c) {
+      try {
+        String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+        return readings == null || readings.length == 0 ? null : readings[0];
+      } catch (BadHanyuPinyinOutputFormatCombination e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
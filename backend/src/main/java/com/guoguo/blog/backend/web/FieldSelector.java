@@ -0,0 +1,53 @@
+package com.guoguo.blog.backend.web;
+
+import com.guoguo.blog.backend.exception.BusinessException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.StringUtils;
+
+/**
+ * 响应字段裁剪
+ *
+ * <p>解析 {@code ?fields=id,title} 形式的参数，按选中的属性（总是包含 id）生成有序的属性表作为响应，
+ * 原响应对象不修改、不改变其序列化形态；未指定时原样返回。</p>
+ */
+public final class FieldSelector {
+  private FieldSelector() {}
+
+  public static Set<String> parse(String fields) {
+    if (!StringUtils.hasText(fields)) {
+      return null;
+    }
+    return Arrays.stream(fields.split(","))
+        .map(String::trim)
+        .filter(StringUtils::hasText)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  public static Object retain(Object bean, String fields) {
+    Set<String> selected = parse(fields);
+    if (bean == null || selected == null) {
+      return bean;
+    }
+    BeanWrapper wrapper = new BeanWrapperImpl(bean);
+    for (String field : selected) {
+      if (!wrapper.isReadableProperty(field) || "class".equals(field)) {
+        throw new BusinessException("INVALID_FIELDS", "不支持的字段: " + field);
+      }
+    }
+    Map<String, Object> view = new LinkedHashMap<>();
+    if (wrapper.isReadableProperty("id")) {
+      view.put("id", wrapper.getPropertyValue("id"));
+    }
+    for (String field : selected) {
+      view.put(field, wrapper.getPropertyValue(field));
+    }
+    return view;
+  }
+}
@@ -0,0 +1,41 @@
+package com.guoguo.blog.backend.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明 GET 接口的 HTTP 缓存策略，由 {@link HttpCachingInterceptor} 处理：写入 Cache-Control，
+ * 并按 {@link #etag()} 指定的数据版本生成弱 ETag，条件请求命中时直接返回 304，不执行接口。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HttpCaching {
+  /** 缓存范围；登录请求一律降为 private */
+  Scope scope() default Scope.PUBLIC;
+
+  /** max-age（秒），0 表示每次都需向服务端校验 */
+  long maxAge() default 0;
+
+  /** 参与 ETag 计算的数据版本；为空时不生成 ETag */
+  Source[] etag() default {};
+
+  /** 响应是否包含与登录用户相关的字段（点赞、关注等）；为 true 时登录请求不生成 ETag */
+  boolean viewerSpecific() default false;
+
+  enum Scope {
+    PUBLIC,
+    PRIVATE,
+    NO_STORE
+  }
+
+  enum Source {
+    /** 全部文章（列表类接口） */
+    ARTICLES,
+    /** 路径变量 id 指定的单篇文章（含计数） */
+    ARTICLE,
+    TAGS,
+    CATEGORIES
+  }
+}
@@ -0,0 +1,92 @@
+package com.guoguo.blog.backend.web;
+
+import com.guoguo.blog.backend.service.ContentVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 处理 {@link HttpCaching}：写入 Cache-Control 与 Vary，计算弱 ETag（数据版本 + 请求路径与参数 + 登录用户），
+ * 条件请求未变化时返回 304 并跳过接口执行。数据版本包含计数与时间分桶，只按 ETag 校验，不发 Last-Modified，
+ * 避免只带 If-Modified-Since 的请求在计数变化后仍得到 304。
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpCachingInterceptor implements HandlerInterceptor {
+  private final ContentVersionService contentVersionService;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod method)
+        || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+      return true;
+    }
+    HttpCaching caching = method.getMethodAnnotation(HttpCaching.class);
+    if (caching == null) {
+      return true;
+    }
+    if (caching.scope() == HttpCaching.Scope.NO_STORE) {
+      response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+      return true;
+    }
+
+    String viewer = currentViewer();
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    if (viewer != null && caching.viewerSpecific()) {
+      response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+      return true;
+    }
+    CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(Math.max(caching.maxAge(), 0L)));
+    cacheControl = caching.scope() == HttpCaching.Scope.PUBLIC && viewer == null ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    if (caching.etag().length == 0) {
+      return true;
+    }
+
+    StringBuilder version = new StringBuilder();
+    for (HttpCaching.Source source : caching.etag()) {
+      String resolved = contentVersionService.resolve(source, pathId(request));
+      if (resolved == null) {
+        return true;
+      }
+      version.append(source.name()).append(':').append(resolved).append(';');
+    }
+    version.append(request.getRequestURI()).append('?').append(request.getQueryString()).append('@').append(viewer);
+    String etag = "W/\"" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    return !new ServletWebRequest(request, response).checkNotModified(etag);
+  }
+
+  private static String currentViewer() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+      return null;
+    }
+    return authentication.getName();
+  }
+
+  private static Long pathId(HttpServletRequest request) {
+    Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    if (!(variables instanceof Map<?, ?> map) || !(map.get("id") instanceof String id)) {
+      return null;
+    }
+    try {
+      return Long.valueOf(id);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.guoguo.blog.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 接口并发舱壁
+ *
+ * <p>限制同时处理的 {@code /api/**} 请求数。虚拟线程模式下 Tomcat 不再以线程池限流，请求会全部涌向连接池并在
+ * {@code connection-timeout} 上排队；此处用信号量把并发控制在连接池可承受的范围内，等待超过 {@code acquire-timeout}
+ * 的请求直接返回 503。{@code max-concurrent-requests} 不大于 0 时不限制。</p>
+ *
+ * <p>进入异步处理的请求（如流式正文）在异步完成、出错或超时后才归还许可，异步再次分派时不重复占用。</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+  private static final String BUSY_BODY =
+      "{\"success\":false,\"code\":\"SERVICE_BUSY\",\"message\":\"服务繁忙，请稍后重试\",\"data\":null}";
+
+  private final int maxConcurrentRequests;
+  private final long acquireTimeoutNanos;
+  private final Semaphore permits;
+  private final Counter rejectedCounter;
+
+  public RequestBulkheadFilter(
+      MeterRegistry meterRegistry,
+      @Value("${app.bulkhead.max-concurrent-requests:0}") int maxConcurrentRequests,
+      @Value("${app.bulkhead.acquire-timeout:500ms}") Duration acquireTimeout) {
+    this.maxConcurrentRequests = Math.max(maxConcurrentRequests, 0);
+    this.acquireTimeoutNanos = Math.max(acquireTimeout.toNanos(), 0L);
+    this.permits = new Semaphore(this.maxConcurrentRequests, true);
+    Gauge.builder("blog.http.bulkhead.in-flight", this, RequestBulkheadFilter::inFlight)
+        .description("舱壁内正在处理的请求数")
+        .register(meterRegistry);
+    this.rejectedCounter =
+        Counter.builder("blog.http.bulkhead.rejected").description("舱壁已满而拒绝的请求数").register(meterRegistry);
+  }
+
+  public int inFlight() {
+    return maxConcurrentRequests - permits.availablePermits();
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return maxConcurrentRequests == 0 || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      rejectedCounter.increment();
+      response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      response.setHeader("Retry-After", "1");
+      response.setContentType("application/json;charset=UTF-8");
+      response.getWriter().write(BUSY_BODY);
+      return;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new ReleaseOnCompletion(released));
+      } else {
+        release(released);
+      }
+    }
+  }
+
+  private void release(AtomicBoolean released) {
+    if (released.compareAndSet(false, true)) {
+      permits.release();
+    }
+  }
+
+  private final class ReleaseOnCompletion implements AsyncListener {
+    private final AtomicBoolean released;
+
+    ReleaseOnCompletion(AtomicBoolean released) {
+      this.released = released;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release(released);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release(released);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release(released);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
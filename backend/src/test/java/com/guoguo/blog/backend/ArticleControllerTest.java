@@ -1,6 +1,12 @@
 package com.guoguo.blog.backend;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guoguo.blog.backend.entity.Article;
+import com.guoguo.blog.backend.entity.ArticleReadHistory;
+import com.guoguo.blog.backend.entity.ArticleStatus;
+import com.guoguo.blog.backend.entity.ArticleTag;
+import com.guoguo.blog.backend.entity.ArticleVisibility;
 import com.guoguo.blog.backend.entity.Category;
 import com.guoguo.blog.backend.entity.Tag;
 import com.guoguo.blog.backend.entity.User;
@@ -14,22 +20,58 @@ import com.guoguo.blog.backend.repository.CategoryRepository;
 import com.guoguo.blog.backend.repository.TagRepository;
 import com.guoguo.blog.backend.repository.UserRepository;
 import com.guoguo.blog.backend.repository.UserRoleRepository;
+import com.guoguo.blog.backend.search.ArticleSearchIndexer;
+import com.guoguo.blog.backend.search.RelatedArticleIndex;
 import com.guoguo.blog.backend.security.CustomUserDetails;
+import com.guoguo.blog.backend.service.ArticleCountRecounter;
+import com.guoguo.blog.backend.service.ArticleInteractionCountReconciler;
+import com.guoguo.blog.backend.service.ArticleViewCounter;
+import com.guoguo.blog.backend.service.CategoryTreeSnapshot;
+import com.guoguo.blog.backend.service.MarkdownRenderService;
+import com.guoguo.blog.backend.service.ReadHistoryIngestor;
+import com.guoguo.blog.backend.service.TagDictionary;
+import com.guoguo.blog.backend.service.TrendingArticleSnapshot;
+import com.guoguo.blog.backend.util.MarkdownUtil;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,13 +88,24 @@ class ArticleControllerTest {
   @Autowired private ArticleLikeRepository articleLikeRepository;
   @Autowired private ArticleCollectionRepository articleCollectionRepository;
   @Autowired private ArticleReadHistoryRepository articleReadHistoryRepository;
+  @Autowired private ArticleViewCounter articleViewCounter;
+  @Autowired private ReadHistoryIngestor readHistoryIngestor;
+  @Autowired private ArticleInteractionCountReconciler articleInteractionCountReconciler;
+  @Autowired private ArticleCountRecounter articleCountRecounter;
+  @Autowired private TrendingArticleSnapshot trendingArticleSnapshot;
+  @Autowired private ArticleSearchIndexer articleSearchIndexer;
+  @Autowired private RelatedArticleIndex relatedArticleIndex;
+  @Autowired private TagDictionary tagDictionary;
+  @Autowired private CategoryTreeSnapshot categoryTreeSnapshot;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @SpyBean private MarkdownRenderService markdownRenderService;
 
   private CustomUserDetails principal;
   private Long categoryId;
   private Long tagId;
 
   @BeforeEach
-  void setup() {
+  void setup() throws Exception {
     articleReadHistoryRepository.deleteAll();
     articleCollectionRepository.deleteAll();
     articleLikeRepository.deleteAll();
@@ -81,6 +134,9 @@ class ArticleControllerTest {
     Tag tag = tagRepository.save(Tag.builder().name("React").slug("react").build());
     categoryId = category.getId();
     tagId = tag.getId();
+    articleSearchIndexer.reconcile();
+    tagDictionary.invalidate();
+    categoryTreeSnapshot.rebuild();
   }
 
   @Test
@@ -100,22 +156,12 @@ class ArticleControllerTest {
             "tagIds",
             List.of(tagId));
 
-    String body =
-        mockMvc
-            .perform(
-                post("/api/articles")
-                    .with(SecurityMockMvcRequestPostProcessors.user(principal))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(payload)))
-            .andExpect(status().isOk())
-            .andExpect(jsonPath("$.success").value(true))
-            .andExpect(jsonPath("$.data.id").exists())
-            .andReturn()
-            .getResponse()
-            .getContentAsString();
-
     Long articleId =
-        objectMapper.readTree(body).path("data").path("id").asLong();
+        idOf(
+            performAsWriter(post("/api/articles"), payload)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").exists()));
 
     mockMvc
         .perform(get("/api/articles"))
@@ -133,31 +179,733 @@ class ArticleControllerTest {
 
   @Test
   void drafts_requires_auth_and_returns_drafts() throws Exception {
+    createArticle("草稿文章", "Draft content", "DRAFT", List.of());
+
+    mockMvc.perform(get("/api/articles/drafts")).andExpect(status().isUnauthorized());
+
+    mockMvc
+        .perform(get("/api/articles/drafts").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.data.list[0].title").value("草稿文章"));
+  }
+
+  @Test
+  void views_are_buffered_and_flushed() throws Exception {
+    Long articleId = createArticle("阅读计数", "Count me");
+
+    for (int i = 0; i < 3; i++) {
+      mockMvc
+          .perform(post("/api/articles/" + articleId + "/view").contentType(MediaType.APPLICATION_JSON).content("{}"))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc.perform(get("/api/articles/" + articleId)).andExpect(jsonPath("$.data.viewCount").value(3));
+
+    articleViewCounter.flush();
+    assertThat(articleRepository.findById(articleId).orElseThrow().getViewCount()).isEqualTo(3L);
+  }
+
+  @Test
+  void read_history_pings_are_upserted_on_flush() throws Exception {
+    Long articleId = createArticle("阅读记录测试", "Read me");
+
+    List<Map<String, Integer>> pings =
+        List.of(Map.of("progress", 10, "lastPosition", 100, "readDuration", 30), Map.of("progress", 35));
+    for (Map<String, Integer> ping : pings) {
+      performAsWriter(post("/api/articles/" + articleId + "/view"), ping).andExpect(status().isOk());
+    }
+    readHistoryIngestor.flush();
+    ArticleReadHistory history =
+        articleReadHistoryRepository.findByArticle_IdAndUser_Id(articleId, principal.getId()).orElseThrow();
+    assertThat(history.getProgress()).isEqualByComparingTo("35");
+    assertThat(history.getLastPosition()).isEqualTo(100);
+    assertThat(history.getReadDuration()).isEqualTo(30);
+    assertThat(history.getLastReadAt()).isNotNull();
+
+    performAsWriter(post("/api/articles/" + articleId + "/view"), Map.of("progress", 80)).andExpect(status().isOk());
+    readHistoryIngestor.flush();
+    ArticleReadHistory updated =
+        articleReadHistoryRepository.findByArticle_IdAndUser_Id(articleId, principal.getId()).orElseThrow();
+    assertThat(updated.getId()).isEqualTo(history.getId());
+    assertThat(updated.getProgress()).isEqualByComparingTo("80");
+    assertThat(updated.getLastPosition()).isEqualTo(100);
+  }
+
+  @Test
+  void like_toggles_and_counts_are_reconciled() throws Exception {
+    Map<String, Object> payload =
+        Map.of("title", "点赞测试", "content", "Like me", "status", "PUBLISHED", "visibility", "PUBLIC");
+    ResultActions created =
+        performAsWriter(post("/api/articles").param("fields", "id,title"), payload)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.title").value("点赞测试"));
+    String body = created.andReturn().getResponse().getContentAsString();
+    assertThat(objectMapper.readTree(body).path("data").fieldNames()).toIterable().containsExactly("id", "title");
+    Long articleId = idOf(created);
+
+    mockMvc
+        .perform(post("/api/articles/" + articleId + "/like").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.liked").value(true))
+        .andExpect(jsonPath("$.data.likeCount").value(1))
+        .andExpect(jsonPath("$.data.content").doesNotExist());
+
+    mockMvc
+        .perform(post("/api/articles/" + articleId + "/like").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.liked").value(false))
+        .andExpect(jsonPath("$.data.likeCount").value(0));
+
+    var article = articleRepository.findById(articleId).orElseThrow();
+    article.setLikeCount(42L);
+    articleRepository.save(article);
+    articleInteractionCountReconciler.reconcile();
+    assertThat(articleRepository.findById(articleId).orElseThrow().getLikeCount()).isZero();
+  }
+
+  @Test
+  void concurrent_like_and_collect_toggles_keep_rows_and_counts_consistent() throws Exception {
+    Long articleId = createArticle("并发点赞", "Race");
+
+    for (int round = 0; round < 5; round++) {
+      // 同一用户同时点两次：一次插入、一次删除，最终不留记录且计数归零，且都不应返回 500
+      assertThat(toggleConcurrently("/api/articles/" + articleId + "/like")).containsOnly(200);
+      assertThat(articleLikeRepository.countByArticle_Id(articleId)).isZero();
+      assertThat(articleRepository.findById(articleId).orElseThrow().getLikeCount()).isZero();
+
+      assertThat(toggleConcurrently("/api/articles/" + articleId + "/collect")).containsOnly(200);
+      assertThat(articleCollectionRepository.countByArticle_Id(articleId)).isZero();
+      assertThat(articleRepository.findById(articleId).orElseThrow().getCollectCount()).isZero();
+    }
+  }
+
+  @Test
+  void detail_cache_is_invalidated_on_update() throws Exception {
+    Long articleId = createArticle("缓存前", "Cached");
+
+    mockMvc.perform(get("/api/articles/" + articleId)).andExpect(jsonPath("$.data.title").value("缓存前"));
+    mockMvc
+        .perform(
+            get("/api/articles/" + articleId).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data.title").value("缓存前"))
+        .andExpect(jsonPath("$.data.liked").value(false));
+
+    Map<String, Object> update =
+        Map.of("title", "缓存后", "content", "Cached", "status", "PUBLISHED", "visibility", "PUBLIC", "tagIds", List.of(tagId));
+    performAsWriter(put("/api/articles/" + articleId), update).andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/articles/" + articleId))
+        .andExpect(jsonPath("$.data.title").value("缓存后"))
+        .andExpect(jsonPath("$.data.tags[0].name").value("React"));
+  }
+
+  @Test
+  void public_reads_answer_conditional_requests_with_not_modified() throws Exception {
+    Long articleId = createArticle("条件请求", "Conditional");
+
+    MvcResult first =
+        mockMvc
+            .perform(get("/api/articles/" + articleId))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", containsString("public")))
+            .andReturn();
+    String etag = first.getResponse().getHeader("ETag");
+    assertThat(etag).startsWith("W/\"");
+    mockMvc
+        .perform(get("/api/articles/" + articleId).header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+    assertThat(first.getResponse().getHeader("Last-Modified")).isNull();
+
+    // 计数变化不更新 updated_at，只带 If-Modified-Since 的请求不能据此得到 304
+    mockMvc
+        .perform(post("/api/articles/" + articleId + "/like").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/articles/" + articleId).header("If-Modified-Since", "Fri, 01 Jan 2100 00:00:00 GMT"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.likeCount").value(1));
+    mockMvc
+        .perform(get("/api/articles/" + articleId).header("If-None-Match", etag))
+        .andExpect(status().isOk());
+    etag = mockMvc.perform(get("/api/articles/" + articleId)).andReturn().getResponse().getHeader("ETag");
+
+    mockMvc
+        .perform(get("/api/articles/" + articleId).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", containsString("private")))
+        .andExpect(header().doesNotExist("ETag"));
+
+    Map<String, Object> update =
+        Map.of("title", "条件请求已更新", "content", "Conditional", "status", "PUBLISHED", "visibility", "PUBLIC");
+    performAsWriter(put("/api/articles/" + articleId), update).andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/articles/" + articleId).header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.title").value("条件请求已更新"));
+
+    String listEtag = mockMvc.perform(get("/api/articles")).andReturn().getResponse().getHeader("ETag");
+    mockMvc.perform(get("/api/articles").header("If-None-Match", listEtag)).andExpect(status().isNotModified());
+  }
+
+  @Test
+  void category_tree_is_served_from_snapshot_rebuilt_on_change() throws Exception {
+    Long parentId =
+        idOf(performAsWriter(post("/api/categories"), Map.of("name", "后端", "slug", "backend")).andExpect(status().isOk()));
+    Long childId =
+        idOf(
+            performAsWriter(
+                    post("/api/categories"), Map.of("name", "Java", "slug", "java", "parentId", parentId, "enabled", false))
+                .andExpect(status().isOk()));
+
+    mockMvc
+        .perform(get("/api/categories/tree"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[0].slug").value("backend"))
+        .andExpect(jsonPath("$.data[0].children[0].slug").value("java"))
+        .andExpect(jsonPath("$.data[1].slug").value("frontend"));
+    mockMvc
+        .perform(get("/api/categories/tree").param("enabled", "true"))
+        .andExpect(jsonPath("$.data[0].slug").value("backend"))
+        .andExpect(jsonPath("$.data[0].children.length()").value(0));
+
+    performAsWriter(put("/api/categories/" + childId), Map.of("enabled", true)).andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/categories/tree").param("enabled", "true"))
+        .andExpect(jsonPath("$.data[0].children[0].slug").value("java"))
+        .andExpect(jsonPath("$.data[0].children[0].enabled").value(true));
+  }
+
+  @Test
+  void tag_reads_use_dictionary_and_followed_tag_bitmap() throws Exception {
+    Long springId =
+        idOf(
+            performAsWriter(post("/api/tags"), Map.of("name", "Spring", "slug", "spring", "recommended", true))
+                .andExpect(status().isOk()));
+
+    mockMvc
+        .perform(get("/api/tags"))
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[1].slug").value("spring"))
+        .andExpect(jsonPath("$.data[1].following").value(false));
+    mockMvc
+        .perform(get("/api/tags/recommended"))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].id").value(springId));
+
+    mockMvc
+        .perform(post("/api/tags/" + springId + "/follow").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data").value(true));
+    mockMvc
+        .perform(get("/api/tags/popular").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data[0].id").value(springId))
+        .andExpect(jsonPath("$.data[0].following").value(true))
+        .andExpect(jsonPath("$.data[1].following").value(false));
+    mockMvc
+        .perform(get("/api/tags/" + springId).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data.following").value(true));
+    mockMvc.perform(get("/api/tags/" + springId)).andExpect(jsonPath("$.data.following").value(false));
+
+    mockMvc
+        .perform(post("/api/tags/" + springId + "/follow").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data").value(false));
+    mockMvc
+        .perform(get("/api/tags/" + springId).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(jsonPath("$.data.following").value(false));
+
+    performAsWriter(put("/api/tags/" + springId), Map.of("enabled", false)).andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/tags/popular"))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].slug").value("react"));
+  }
+
+  @Test
+  void tag_and_category_article_counts_follow_article_transitions() throws Exception {
     Map<String, Object> payload =
         Map.of(
-            "title",
-            "草稿文章",
-            "content",
-            "Draft content",
-            "status",
-            "DRAFT",
-            "visibility",
-            "PUBLIC");
+            "title", "计数", "content", "Counts", "status", "PUBLISHED", "visibility", "PUBLIC",
+            "categoryId", categoryId, "tagIds", List.of(tagId));
+    Long articleId = createArticle(payload);
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isEqualTo(1);
+    assertThat(categoryRepository.findById(categoryId).orElseThrow().getArticleCount()).isEqualTo(1);
+    mockMvc.perform(get("/api/tags/popular")).andExpect(jsonPath("$.data[0].articleCount").value(1));
+    mockMvc.perform(get("/api/categories/tree")).andExpect(jsonPath("$.data[0].articleCount").value(1));
+
+    Map<String, Object> draft =
+        Map.of("title", "计数", "content", "Counts", "status", "DRAFT", "visibility", "PUBLIC", "categoryId", categoryId);
+    performAsWriter(put("/api/articles/" + articleId), draft).andExpect(status().isOk());
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isZero();
+    assertThat(categoryRepository.findById(categoryId).orElseThrow().getArticleCount()).isZero();
+    mockMvc.perform(get("/api/tags/popular")).andExpect(jsonPath("$.data[0].articleCount").value(0));
+    mockMvc.perform(get("/api/categories/tree")).andExpect(jsonPath("$.data[0].articleCount").value(0));
+
+    performAsWriter(put("/api/articles/" + articleId), payload).andExpect(status().isOk());
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isEqualTo(1);
+
+    Tag tag = tagRepository.findById(tagId).orElseThrow();
+    tag.setArticleCount(7);
+    tagRepository.save(tag);
+    tagDictionary.invalidate();
+    mockMvc.perform(get("/api/tags/popular")).andExpect(jsonPath("$.data[0].articleCount").value(7));
+    articleCountRecounter.recountAll();
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isEqualTo(1);
+    // 校正只回读发生偏差的标签，已加载的字典随之更新
+    mockMvc.perform(get("/api/tags/popular")).andExpect(jsonPath("$.data[0].articleCount").value(1));
+    assertThat(categoryRepository.findById(categoryId).orElseThrow().getArticleCount()).isEqualTo(1);
 
+    mockMvc
+        .perform(delete("/api/articles/" + articleId).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .andExpect(status().isOk());
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isZero();
+    assertThat(categoryRepository.findById(categoryId).orElseThrow().getArticleCount()).isZero();
+  }
+
+  @Test
+  void tag_update_keeps_unchanged_rows_and_applies_only_the_diff() throws Exception {
+    Long vueId = tagRepository.save(Tag.builder().name("Vue").slug("vue").build()).getId();
+    Long goId = tagRepository.save(Tag.builder().name("Go").slug("go").build()).getId();
+    Long articleId = createArticle("标签差异", "Diff", "PUBLISHED", List.of(tagId, vueId));
+    assertThat(articleTagRepository.findTagIdsByArticleId(articleId)).containsExactlyInAnyOrder(tagId, vueId);
+    Long keptRowId =
+        articleTagRepository.findAll().stream().filter(at -> at.getTag().getId().equals(vueId)).findFirst().orElseThrow().getId();
+
+    Map<String, Object> update =
+        Map.of("title", "标签差异", "content", "Diff", "status", "PUBLISHED", "visibility", "PUBLIC", "tagIds", List.of(vueId, goId, goId));
+    performAsWriter(put("/api/articles/" + articleId), update)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.tags.length()").value(2));
+
+    assertThat(articleTagRepository.findTagIdsByArticleId(articleId)).containsExactlyInAnyOrder(vueId, goId);
+    assertThat(articleTagRepository.findAll().stream().filter(at -> at.getTag().getId().equals(vueId)).findFirst().orElseThrow().getId())
+        .isEqualTo(keptRowId);
+    assertThat(tagRepository.findById(tagId).orElseThrow().getArticleCount()).isZero();
+    assertThat(tagRepository.findById(goId).orElseThrow().getArticleCount()).isEqualTo(1);
+  }
+
+  @Test
+  void markdown_is_rendered_once_into_html_toc_summary_and_word_count() throws Exception {
+    String content = "# 入门 Guide\n\n第一段 hello world\n\n```java\nint ignored = 1;\n```\n\n## 进阶\n\n结尾";
+    Map<String, Object> payload =
+        Map.of("title", "渲染", "content", content, "status", "PUBLISHED", "visibility", "PUBLIC");
+    ResultActions created =
+        performAsWriter(post("/api/articles"), payload)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.summary").value("入门 Guide 第一段 hello world 进阶 结尾"))
+            .andExpect(jsonPath("$.data.wordCount").value(12))
+            .andExpect(jsonPath("$.data.toc.length()").value(2))
+            .andExpect(jsonPath("$.data.toc[1].level").value(2));
+    String body = created.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    assertThat(objectMapper.readTree(body).at("/data/toc/0/anchor").asText()).isNotBlank();
+    assertThat(objectMapper.readTree(body).at("/data/htmlContent").asText()).isEqualTo(MarkdownUtil.toHtml(content)).doesNotContain(" id=");
+    Long articleId = idOf(created);
+    String hash = articleRepository.findById(articleId).orElseThrow().getContentHash();
+
+    Map<String, Object> retitled =
+        Map.of("title", "改标题", "content", content, "summary", "手写摘要", "status", "PUBLISHED", "visibility", "PUBLIC");
+    performAsWriter(put("/api/articles/" + articleId), retitled)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.summary").value("手写摘要"))
+        .andExpect(jsonPath("$.data.toc.length()").value(2));
+    assertThat(articleRepository.findById(articleId).orElseThrow().getContentHash()).isEqualTo(hash);
+
+    Map<String, Object> rewritten =
+        Map.of("title", "改标题", "content", "只有正文", "status", "PUBLISHED", "visibility", "PUBLIC");
+    performAsWriter(put("/api/articles/" + articleId), rewritten)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.summary").value("只有正文"))
+        .andExpect(jsonPath("$.data.toc").doesNotExist())
+        .andExpect(jsonPath("$.data.wordCount").value(4));
+  }
+
+  @Test
+  void update_rerenders_when_content_changes_between_state_read_and_write() throws Exception {
+    Map<String, Object> alpha = Map.of("title", "并发编辑", "content", "Alpha", "status", "PUBLISHED", "visibility", "PUBLIC");
+    Map<String, Object> beta = Map.of("title", "并发编辑", "content", "# Beta", "status", "PUBLISHED", "visibility", "PUBLIC");
+    Long articleId = createArticle(alpha);
+    AtomicBoolean raced = new AtomicBoolean();
+    doAnswer(
+            invocation -> {
+              Object rendered = invocation.callRealMethod();
+              if (raced.compareAndSet(false, true)) {
+                // 本次请求读取状态之后、写事务之前，另一请求提交了不同的正文
+                CompletableFuture.runAsync(
+                        () -> {
+                          try {
+                            performAsWriter(put("/api/articles/" + articleId), beta).andExpect(status().isOk());
+                          } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                          }
+                        })
+                    .join();
+              }
+              return rendered;
+            })
+        .when(markdownRenderService)
+        .renderIfChanged(anyString(), any());
+
+    performAsWriter(put("/api/articles/" + articleId), alpha).andExpect(status().isOk());
+
+    Article article = articleRepository.findById(articleId).orElseThrow();
+    assertThat(article.getContent()).isEqualTo("Alpha");
+    assertThat(article.getHtmlContent()).isEqualTo(MarkdownUtil.toHtml("Alpha"));
+    assertThat(article.getContentHash()).isEqualTo(MarkdownRenderService.hash("Alpha"));
+    assertThat(article.getTocJson()).isNull();
+  }
+
+  @Test
+  void body_is_streamed_with_etag_and_omitted_from_detail_by_default() throws Exception {
+    Long articleId = createArticle("正文流", "Hello **Stream**");
+
+    mockMvc
+        .perform(get("/api/articles/" + articleId))
+        .andExpect(jsonPath("$.data.title").value("正文流"))
+        .andExpect(jsonPath("$.data.content").doesNotExist())
+        .andExpect(jsonPath("$.data.htmlContent").doesNotExist());
+    mockMvc
+        .perform(get("/api/articles/" + articleId).param("includeBody", "true"))
+        .andExpect(jsonPath("$.data.content").value("Hello **Stream**"));
+
+    MvcResult html = mockMvc.perform(get("/api/articles/" + articleId + "/body")).andExpect(request().asyncStarted()).andReturn();
+    // 正文在异步线程写入同一个响应对象，先等待写完再读取响应头
+    html.getAsyncResult();
+    String etag = html.getResponse().getHeader("ETag");
+    mockMvc
+        .perform(asyncDispatch(html))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("text/html"))
+        .andExpect(content().string(containsString("<strong>Stream</strong>")));
+    assertThat(etag).isEqualTo("\"" + articleRepository.findById(articleId).orElseThrow().getContentHash() + "-html\"");
+
+    mockMvc
+        .perform(get("/api/articles/" + articleId + "/body").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+
+    MvcResult markdown =
+        mockMvc
+            .perform(get("/api/articles/" + articleId + "/body").param("format", "markdown"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    markdown.getAsyncResult();
+    assertThat(markdown.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+    mockMvc.perform(asyncDispatch(markdown)).andExpect(content().string("Hello **Stream**"));
+
+    mockMvc
+        .perform(get("/api/articles/" + articleId + "/body").param("format", "pdf"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("INVALID_BODY_FORMAT"));
+  }
+
+  @Test
+  void search_returns_ranked_hits_with_highlight() throws Exception {
+    createArticle("分布式缓存实践", "本文介绍**分布式缓存**的一致性问题");
+    createArticle("前端路由", "与搜索无关的内容");
+
+    mockMvc
+        .perform(get("/api/articles/search").param("keyword", "缓存"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.list[0].title").value("分布式缓存实践"))
+        .andExpect(jsonPath("$.data.list[0].highlight").value(containsString("<em>缓存</em>")));
+
+    mockMvc
+        .perform(get("/api/articles").param("keyword", "一致性"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.list[0].highlight").doesNotExist());
+  }
+
+  @Test
+  void keyword_listing_filters_counts_and_pages_inside_the_index() throws Exception {
+    createArticle("缓存设计", "缓存与一致性");
+    createArticle(
+        Map.of(
+            "title", "数据库调优", "content", "顺带提到缓存", "status", "PUBLISHED", "visibility", "PUBLIC", "categoryId", categoryId));
+    createArticle(Map.of("title", "私密缓存笔记", "content", "缓存", "status", "PUBLISHED", "visibility", "PRIVATE"));
+
+    mockMvc
+        .perform(get("/api/articles").param("keyword", "缓存").param("sortBy", "viewCount"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(2))
+        .andExpect(jsonPath("$.data.list[0].title").value("缓存设计"))
+        .andExpect(jsonPath("$.data.list[1].title").value("数据库调优"));
+    mockMvc
+        .perform(get("/api/articles").param("keyword", "缓存").param("categoryId", String.valueOf(categoryId)))
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.list[0].title").value("数据库调优"));
     mockMvc
         .perform(
-            post("/api/articles")
+            get("/api/articles")
                 .with(SecurityMockMvcRequestPostProcessors.user(principal))
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(payload)))
+                .param("keyword", "缓存")
+                .param("userId", String.valueOf(principal.getId())))
+        .andExpect(jsonPath("$.data.total").value(3));
+
+    String first =
+        mockMvc
+            .perform(get("/api/articles").param("keyword", "缓存").param("cursor", "").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.list[0].title").value("缓存设计"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String nextCursor = objectMapper.readTree(first).path("data").path("nextCursor").asText();
+    mockMvc
+        .perform(get("/api/articles").param("keyword", "缓存").param("cursor", nextCursor).param("size", "1"))
+        .andExpect(jsonPath("$.data.list[0].title").value("数据库调优"))
+        .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+    // 绕过业务层写入的文章没有增量同步，由对账补齐
+    saveArticles(1);
+    mockMvc.perform(get("/api/articles").param("keyword", "批量")).andExpect(jsonPath("$.data.total").value(0));
+    articleSearchIndexer.reconcile();
+    mockMvc.perform(get("/api/articles").param("keyword", "批量")).andExpect(jsonPath("$.data.total").value(1));
+  }
+
+  @Test
+  void cursor_pagination_walks_feed_without_total() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      createArticle("游标文章" + i, "Body " + i);
+    }
+
+    String first =
+        mockMvc
+            .perform(get("/api/articles").param("cursor", "").param("size", "2").param("sortBy", "publishedAt"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.list.length()").value(2))
+            .andExpect(jsonPath("$.data.total").doesNotExist())
+            .andExpect(jsonPath("$.data.nextCursor").exists())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String nextCursor = objectMapper.readTree(first).path("data").path("nextCursor").asText();
+    List<Long> firstIds =
+        List.of(
+            objectMapper.readTree(first).path("data").path("list").get(0).path("id").asLong(),
+            objectMapper.readTree(first).path("data").path("list").get(1).path("id").asLong());
+
+    String second =
+        mockMvc
+            .perform(get("/api/articles").param("cursor", nextCursor).param("size", "2").param("sortBy", "publishedAt"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.list.length()").value(1))
+            .andExpect(jsonPath("$.data.nextCursor").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(firstIds).doesNotContain(objectMapper.readTree(second).path("data").path("list").get(0).path("id").asLong());
+
+    mockMvc
+        .perform(get("/api/articles").param("cursor", nextCursor).param("size", "2").param("sortBy", "viewCount"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+  }
+
+  @Test
+  void cursor_feed_keeps_unpublished_rows_after_published_ones() throws Exception {
+    for (String status : List.of("PUBLISHED", "DRAFT", "PUBLISHED", "DRAFT")) {
+      createArticle("自查" + status, "Body", status, List.of());
+    }
+
+    List<String> statuses = new ArrayList<>();
+    String cursor = "";
+    do {
+      String body =
+          mockMvc
+              .perform(
+                  get("/api/articles")
+                      .with(SecurityMockMvcRequestPostProcessors.user(principal))
+                      .param("userId", String.valueOf(principal.getId()))
+                      .param("cursor", cursor)
+                      .param("size", "1")
+                      .param("sortBy", "publishedAt"))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      JsonNode data = objectMapper.readTree(body).path("data");
+      data.path("list").forEach(item -> statuses.add(item.path("status").asText()));
+      cursor = data.path("nextCursor").asText(null);
+    } while (cursor != null);
+
+    assertThat(statuses).containsExactly("PUBLISHED", "PUBLISHED", "DRAFT", "DRAFT");
+  }
+
+  @Test
+  void trending_is_served_from_decayed_snapshot() throws Exception {
+    Long quiet = createArticle("冷门文章", "冷门文章");
+    Long hot = createArticle("热门文章", "热门文章");
+
+    var quietArticle = articleRepository.findById(quiet).orElseThrow();
+    quietArticle.setViewCount(1000L);
+    articleRepository.save(quietArticle);
+    mockMvc
+        .perform(post("/api/articles/" + hot + "/like").with(SecurityMockMvcRequestPostProcessors.user(principal)))
         .andExpect(status().isOk());
 
-    mockMvc.perform(get("/api/articles/drafts")).andExpect(status().isUnauthorized());
+    trendingArticleSnapshot.refresh();
+    mockMvc
+        .perform(get("/api/articles/trending").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[0].id").value(hot))
+        .andExpect(jsonPath("$.data[1].id").value(quiet));
+  }
+
+  @Test
+  void related_articles_are_ranked_by_tag_overlap() throws Exception {
+    Long secondTagId = tagRepository.save(Tag.builder().name("Vue").slug("vue").build()).getId();
+    Long thirdTagId = tagRepository.save(Tag.builder().name("Go").slug("go").build()).getId();
+    List<List<Long>> tagSets =
+        List.of(List.of(tagId, secondTagId), List.of(tagId, secondTagId), List.of(tagId), List.of(thirdTagId));
+    List<String> titles = List.of("Hooks", "Router", "Compiler", "Goroutine");
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < tagSets.size(); i++) {
+      ids.add(createArticle(titles.get(i), "Body", "PUBLISHED", tagSets.get(i)));
+    }
+    // 增量更新在后台线程执行；重建会等待已登记的更新处理完毕
+    relatedArticleIndex.rebuild();
 
     mockMvc
-        .perform(get("/api/articles/drafts").with(SecurityMockMvcRequestPostProcessors.user(principal)))
+        .perform(get("/api/articles/" + ids.get(0) + "/related").param("limit", "5"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.success").value(true))
-        .andExpect(jsonPath("$.data.list[0].title").value("草稿文章"));
+        .andExpect(jsonPath("$.data[0].id").value(ids.get(1)))
+        .andExpect(jsonPath("$.data[1].id").value(ids.get(2)))
+        .andExpect(jsonPath("$.data[?(@.id == " + ids.get(3) + ")]").isEmpty());
+  }
+
+  @Test
+  void article_list_uses_fixed_statement_count_per_page() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    saveArticles(2);
+    statistics.clear();
+    mockMvc.perform(get("/api/articles")).andExpect(status().isOk()).andExpect(jsonPath("$.data.list.length()").value(2));
+    long smallPage = statistics.getPrepareStatementCount();
+
+    saveArticles(6);
+    statistics.clear();
+    mockMvc
+        .perform(get("/api/articles"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.list.length()").value(8))
+        .andExpect(jsonPath("$.data.list[0].author.roles[0]").value("ROLE_USER"));
+    long largePage = statistics.getPrepareStatementCount();
+
+    assertThat(largePage).isEqualTo(smallPage);
+    assertThat(largePage).isLessThanOrEqualTo(6L);
+  }
+
+  @Test
+  void article_list_selects_rows_without_loading_article_entities() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    saveArticles(2);
+    User author = userRepository.findAll().get(0);
+    articleRepository.save(
+        Article.builder()
+            .author(author)
+            .title("未分类")
+            .slug("uncategorized")
+            .content("Body")
+            .status(ArticleStatus.PUBLISHED)
+            .visibility(ArticleVisibility.PUBLIC)
+            .build());
+    statistics.clear();
+
+    mockMvc
+        .perform(get("/api/articles"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.list.length()").value(3))
+        .andExpect(jsonPath("$.data.list[?(@.slug == 'uncategorized')].title").value("未分类"));
+    assertThat(statistics.getEntityStatistics(Article.class.getName()).getLoadCount()).isZero();
+  }
+
+  /** 以当前用户发布一篇公开文章，返回文章ID。 */
+  private Long createArticle(String title, String content) throws Exception {
+    return createArticle(title, content, "PUBLISHED", List.of());
+  }
+
+  /** 以当前用户创建指定状态、标签的公开文章，返回文章ID。 */
+  private Long createArticle(String title, String content, String status, List<Long> tagIds) throws Exception {
+    return createArticle(
+        Map.of("title", title, "content", content, "status", status, "visibility", "PUBLIC", "tagIds", tagIds));
+  }
+
+  private Long createArticle(Map<String, Object> payload) throws Exception {
+    return idOf(performAsWriter(post("/api/articles"), payload).andExpect(status().isOk()));
+  }
+
+  /** 以当前用户身份发送 JSON 请求体。 */
+  private ResultActions performAsWriter(MockHttpServletRequestBuilder request, Map<?, ?> payload) throws Exception {
+    return mockMvc.perform(
+        request
+            .with(SecurityMockMvcRequestPostProcessors.user(principal))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(payload)));
+  }
+
+  private Long idOf(ResultActions result) throws Exception {
+    String body = result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    return objectMapper.readTree(body).path("data").path("id").asLong();
+  }
+
+  private List<Integer> toggleConcurrently(String path) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<CompletableFuture<Integer>> clicks = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      clicks.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  start.await();
+                  return mockMvc
+                      .perform(post(path).with(SecurityMockMvcRequestPostProcessors.user(principal)))
+                      .andReturn()
+                      .getResponse()
+                      .getStatus();
+                } catch (Exception e) {
+                  throw new IllegalStateException(e);
+                }
+              }));
+    }
+    start.countDown();
+    List<Integer> statuses = new ArrayList<>();
+    for (CompletableFuture<Integer> click : clicks) {
+      statuses.add(click.get(30, TimeUnit.SECONDS));
+    }
+    return statuses;
+  }
+
+  private void saveArticles(int count) {
+    for (int i = 0; i < count; i++) {
+      String suffix = UUID.randomUUID().toString().substring(0, 8);
+      User author =
+          userRepository.save(
+              User.builder()
+                  .username("author-" + suffix)
+                  .email(suffix + "@example.com")
+                  .passwordHash("x")
+                  .enabled(true)
+                  .locked(false)
+                  .build());
+      userRoleRepository.save(UserRole.builder().user(author).roleCode("ROLE_USER").build());
+      Category category = categoryRepository.save(Category.builder().name("分类" + suffix).slug("c-" + suffix).build());
+      Article article =
+          articleRepository.save(
+              Article.builder()
+                  .author(author)
+                  .category(category)
+                  .title("批量" + suffix)
+                  .slug("a-" + suffix)
+                  .content("Body")
+                  .status(ArticleStatus.PUBLISHED)
+                  .visibility(ArticleVisibility.PUBLIC)
+                  .build());
+      articleTagRepository.save(
+          ArticleTag.builder().article(article).tag(tagRepository.findById(tagId).orElseThrow()).build());
+    }
   }
 }
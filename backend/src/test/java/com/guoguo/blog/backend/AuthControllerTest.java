@@ -5,16 +5,23 @@ import com.guoguo.blog.backend.entity.User;
 import com.guoguo.blog.backend.entity.UserRole;
 import com.guoguo.blog.backend.repository.UserRepository;
 import com.guoguo.blog.backend.repository.UserRoleRepository;
+import com.guoguo.blog.backend.security.CustomUserDetailsService;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,6 +33,7 @@ class AuthControllerTest {
   @Autowired private UserRepository userRepository;
   @Autowired private UserRoleRepository userRoleRepository;
   @Autowired private PasswordEncoder passwordEncoder;
+  @SpyBean private CustomUserDetailsService userDetailsService;
 
   @Test
   void register_success() throws Exception {
@@ -79,5 +87,47 @@ class AuthControllerTest {
         .andExpect(jsonPath("$.data.user.email").value("login@example.com"))
         .andExpect(jsonPath("$.data.accessToken").exists());
   }
-}
 
+  @Test
+  void authenticated_requests_reuse_cached_principal_until_user_changes() throws Exception {
+    User user =
+        userRepository.save(
+            User.builder()
+                .username("cacheduser")
+                .email("cached@example.com")
+                .passwordHash(passwordEncoder.encode("Password123"))
+                .enabled(true)
+                .locked(false)
+                .build());
+    userRoleRepository.save(UserRole.builder().user(user).roleCode("ROLE_USER").build());
+    String body =
+        mockMvc
+            .perform(
+                post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("email", "cached@example.com", "password", "Password123"))))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String bearer = "Bearer " + objectMapper.readTree(body).at("/data/accessToken").asText();
+    clearInvocations(userDetailsService);
+
+    mockMvc.perform(get("/api/user/me").header("Authorization", bearer)).andExpect(status().isOk());
+    mockMvc.perform(get("/api/user/me").header("Authorization", bearer)).andExpect(status().isOk());
+    verify(userDetailsService, times(1)).loadUserByUsername("cacheduser");
+
+    mockMvc
+        .perform(
+            put("/api/user/me")
+                .header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("displayName", "Cached"))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/user/me").header("Authorization", bearer))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.displayName").value("Cached"));
+    verify(userDetailsService, times(2)).loadUserByUsername("cacheduser");
+  }
+}
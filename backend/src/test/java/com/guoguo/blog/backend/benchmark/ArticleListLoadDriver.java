@@ -0,0 +1,118 @@
+package com.guoguo.blog.backend.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code GET /api/articles} 闭环压测：固定并发数的客户端循环请求列表页（页码轮换），预热后统计吞吐量与延迟分位数。
+ * 用于对比平台线程与虚拟线程模式：分别以默认配置和 {@code virtual} profile 启动后端，用相同参数各跑一次。
+ *
+ * <p>运行：先启动后端，然后同 {@link JwtTokenProviderBenchmark} 构建 classpath，执行
+ * {@code java -cp ... com.guoguo.blog.backend.benchmark.ArticleListLoadDriver [baseUrl] [并发数] [压测秒数] [预热秒数]}，
+ * 默认 {@code http://localhost:8080 200 30 10}。</p>
+ */
+public class ArticleListLoadDriver {
+  private static final int PAGES = 10;
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+    Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).version(HttpClient.Version.HTTP_1_1).build();
+
+    System.out.printf("warmup: %ds, concurrency=%d, target=%s%n", warmup.toSeconds(), concurrency, baseUrl);
+    run(client, workers, baseUrl, concurrency, warmup);
+    Result result = run(client, workers, baseUrl, concurrency, duration);
+    workers.shutdownNow();
+
+    long[] latencies = result.latencies();
+    Arrays.sort(latencies);
+    System.out.printf(
+        "requests=%d, errors=%d (503=%d), throughput=%.1f req/s%n",
+        latencies.length + result.errors(),
+        result.errors(),
+        result.rejected(),
+        latencies.length / (double) duration.toSeconds());
+    System.out.printf(
+        "latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+        percentile(latencies, 0.50),
+        percentile(latencies, 0.90),
+        percentile(latencies, 0.99),
+        percentile(latencies, 1.00));
+  }
+
+  private static Result run(HttpClient client, ExecutorService workers, String baseUrl, int concurrency, Duration duration)
+      throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicLong errors = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+    List<Future<long[]>> futures = new ArrayList<>(concurrency);
+    for (int w = 0; w < concurrency; w++) {
+      int worker = w;
+      futures.add(
+          workers.submit(
+              () -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                for (int i = worker; System.nanoTime() < deadline; i++) {
+                  HttpRequest request =
+                      HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles?page=" + (i % PAGES + 1) + "&size=10"))
+                          .timeout(Duration.ofSeconds(10))
+                          .GET()
+                          .build();
+                  long start = System.nanoTime();
+                  try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                      errors.incrementAndGet();
+                      if (response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                      }
+                      continue;
+                    }
+                  } catch (IOException e) {
+                    errors.incrementAndGet();
+                    continue;
+                  }
+                  if (count == samples.length) {
+                    samples = Arrays.copyOf(samples, count * 2);
+                  }
+                  samples[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(samples, count);
+              }));
+    }
+    long[] all = new long[0];
+    for (Future<long[]> future : futures) {
+      long[] samples = future.get();
+      int offset = all.length;
+      all = Arrays.copyOf(all, offset + samples.length);
+      System.arraycopy(samples, 0, all, offset, samples.length);
+    }
+    return new Result(all, errors.get(), rejected.get());
+  }
+
+  private static double percentile(long[] sorted, double p) {
+    if (sorted.length == 0) {
+      return 0d;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+    return sorted[Math.max(index, 0)] / 1_000_000d;
+  }
+
+  private record Result(long[] latencies, long errors, long rejected) {}
+}
@@ -0,0 +1,83 @@
+package com.guoguo.blog.backend.benchmark;
+
+import com.guoguo.blog.backend.security.CustomUserDetails;
+import com.guoguo.blog.backend.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * 访问令牌校验 + 取 subject 的吞吐量对比：{@code legacy} 为每次调用重新解码密钥、构建解析器并解析两次的旧实现，
+ * {@code parseOnce} 为复用密钥与解析器、只解析一次的现实现。
+ *
+ * <p>运行：{@code mvn -q test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt}，
+ * 然后 {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.guoguo.blog.backend.benchmark.JwtTokenProviderBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+  private static final String SECRET = "ZG9uJ3QtdXNlLXRoaXMtaW4tcHJvZC0zMi1ieXRlLXNlY3JldA==";
+
+  private JwtTokenProvider provider;
+  private String token;
+
+  @Setup
+  public void setup() {
+    provider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+    CustomUserDetails principal =
+        new CustomUserDetails(1L, "bench", "bench@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")), true, true);
+    token =
+        provider.generateAccessToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+  }
+
+  @Benchmark
+  public String legacy() {
+    if (legacyParse(token) == null) {
+      return null;
+    }
+    return legacyParse(token).getSubject();
+  }
+
+  @Benchmark
+  public String parseOnce() {
+    Claims claims = provider.parse(token);
+    return claims == null ? null : claims.getSubject();
+  }
+
+  private static Claims legacyParse(String token) {
+    try {
+      Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+      return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JwtTokenProviderBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,69 @@
+package com.guoguo.blog.backend.benchmark;
+
+import com.guoguo.blog.backend.util.MarkdownUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 正文摘要提取耗时对比：{@code legacy} 为对全文执行三次 {@code replaceAll} 的旧实现，{@code streaming} 为单遍扫描、
+ * 凑够字符即停止的现实现。正文由标题、段落、列表与代码块循环拼接到指定大小。
+ *
+ * <p>运行方式同 {@link JwtTokenProviderBenchmark}，主类换为 {@code com.guoguo.blog.backend.benchmark.MarkdownSummaryBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownSummaryBenchmark {
+  private static final String SECTION =
+      "## 小节标题 Section\n\n"
+          + "正文段落，包含 **加粗**、_强调_ 与 `inline code`，以及一个[链接](https://example.com/docs)。😀\n\n"
+          + "- 列表项一\n- 列表项二\n\n"
+          + "```java\npublic class Demo {\n  int value = 42;\n}\n```\n\n"
+          + "> 引用内容 quote\n\n";
+
+  @Param({"4096", "1048576"})
+  private int size;
+
+  private String markdown;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder(size + SECTION.length());
+    builder.append("# 文章标题\n\n");
+    while (builder.length() < size) {
+      builder.append(SECTION);
+    }
+    markdown = builder.toString();
+  }
+
+  @Benchmark
+  public String legacy() {
+    String text = markdown.replaceAll("```[\\s\\S]*?```", "").replaceAll("[#>*_`\\-]", " ").replaceAll("\\s+", " ").trim();
+    return text.length() <= 120 ? text : text.substring(0, 120);
+  }
+
+  @Benchmark
+  public String streaming() {
+    return MarkdownUtil.extractSummary(markdown, 120);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MarkdownSummaryBenchmark.class.getSimpleName()).build()).run();
+  }
+}
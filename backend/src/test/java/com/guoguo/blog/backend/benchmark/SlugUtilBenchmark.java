@@ -0,0 +1,91 @@
+package com.guoguo.blog.backend.benchmark;
+
+import com.guoguo.blog.backend.util.SlugUtil;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 标题转 slug 的吞吐量对比（每次调用处理整份标题语料）：{@code legacy} 为 NFKD 后四次 {@code replaceAll} 的旧实现，
+ * {@code singlePass} 为逐字符单遍、汉字转拼音的现实现。
+ *
+ * <p>运行方式同 {@link JwtTokenProviderBenchmark}，主类换为 {@code com.guoguo.blog.backend.benchmark.SlugUtilBenchmark}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugUtilBenchmark {
+  private static final String[] TITLES = {
+    "Spring Boot 3 入门：从零搭建一个博客后端",
+    "深入理解 Java 虚拟机的垃圾回收机制",
+    "React Hooks 最佳实践与常见陷阱",
+    "Vue3 源码解析（一）：响应式系统",
+    "MySQL 索引优化实战",
+    "如何用 Docker Compose 部署 Next.js 应用",
+    "Kubernetes 101: Pods, Services & Deployments",
+    "Hello World",
+    "Understanding Rust's Ownership Model",
+    "TypeScript 类型体操入门",
+    "Redis 缓存穿透、击穿与雪崩的解决方案",
+    "Go 并发编程：goroutine 与 channel",
+    "A Gentle Introduction to Transformers",
+    "前端性能优化清单 2024",
+    "Café au lait — naïve résumé of Crème Brûlée",
+    "使用 Lucene 实现中文全文检索",
+    "Git 分支管理策略：Git Flow vs Trunk Based",
+    "Linux 常用命令速查表",
+    "Designing Data-Intensive Applications 读书笔记",
+    "周末随笔：关于写作与编程",
+  };
+
+  @Setup
+  public void setup() {
+    SlugUtil.toSlug("预热拼音表");
+  }
+
+  @Benchmark
+  public void legacy(Blackhole blackhole) {
+    for (String title : TITLES) {
+      blackhole.consume(legacySlug(title));
+    }
+  }
+
+  @Benchmark
+  public void singlePass(Blackhole blackhole) {
+    for (String title : TITLES) {
+      blackhole.consume(SlugUtil.toSlug(title));
+    }
+  }
+
+  private static String legacySlug(String input) {
+    String slug =
+        Normalizer.normalize(input, Normalizer.Form.NFKD)
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^a-z0-9\\s-]", "")
+            .trim()
+            .replaceAll("\\s+", "-")
+            .replaceAll("-{2,}", "-");
+    return slug.isBlank() ? "article" : slug;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SlugUtilBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,103 @@
+package com.guoguo.blog.backend.search;
+
+import com.guoguo.blog.backend.service.ArticleChangedEvent;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedArticleIndexTest {
+  private JdbcTemplate jdbcTemplate;
+  private RelatedArticleIndex index;
+
+  @BeforeEach
+  void setup() {
+    String url = "jdbc:h2:mem:related-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    jdbcTemplate.execute(
+        "create table articles (id bigint primary key, title varchar(200), status varchar(20), visibility varchar(20))");
+    jdbcTemplate.execute("create table article_tags (article_id bigint, tag_id bigint)");
+    index = new RelatedArticleIndex(jdbcTemplate, 2, 0d, 1000);
+  }
+
+  @AfterEach
+  void shutdown() {
+    index.shutdown();
+    jdbcTemplate.execute("shutdown");
+  }
+
+  @Test
+  void removing_an_article_backfills_the_lists_that_contained_it() {
+    insert(1L, 10L, 20L);
+    insert(2L, 10L, 20L);
+    insert(3L, 10L);
+    insert(4L, 10L);
+    index.rebuild();
+    assertThat(index.neighbours(1L, 5)).containsExactly(2L, 4L);
+
+    jdbcTemplate.update("update articles set status = 'DELETED' where id = 2");
+    index.onArticleChanged(new ArticleChangedEvent(2L));
+    index.awaitUpdates();
+
+    assertThat(index.neighbours(2L, 5)).isEmpty();
+    assertThat(index.neighbours(1L, 5)).containsExactly(4L, 3L);
+  }
+
+  @Test
+  void new_articles_join_affected_lists_without_a_rebuild() {
+    insert(1L, 10L);
+    index.rebuild();
+    assertThat(index.neighbours(1L, 5)).isEmpty();
+
+    insert(2L, 10L);
+    index.onArticleChanged(new ArticleChangedEvent(2L));
+    index.awaitUpdates();
+
+    assertThat(index.neighbours(1L, 5)).containsExactly(2L);
+    assertThat(index.neighbours(2L, 5)).containsExactly(1L);
+  }
+
+  @Test
+  void stronger_new_article_displaces_the_kth_neighbour_and_weaker_one_does_not() {
+    insert(1L, 10L, 20L);
+    insert(2L, 10L, 20L);
+    insert(3L, 10L);
+    index.rebuild();
+    assertThat(index.neighbours(1L, 5)).containsExactly(2L, 3L);
+
+    insert(4L, 10L, 20L);
+    index.onArticleChanged(new ArticleChangedEvent(4L));
+    index.awaitUpdates();
+    assertThat(index.neighbours(1L, 5)).containsExactly(4L, 2L);
+
+    insert(5L, 10L, 30L);
+    index.onArticleChanged(new ArticleChangedEvent(5L));
+    index.awaitUpdates();
+    assertThat(index.neighbours(1L, 5)).containsExactly(4L, 2L);
+    assertThat(index.neighbours(5L, 5)).hasSize(2);
+  }
+
+  @Test
+  void tags_above_the_document_frequency_cutoff_do_not_generate_candidates() {
+    index.shutdown();
+    index = new RelatedArticleIndex(jdbcTemplate, 2, 0d, 2);
+    insert(1L, 10L, 20L);
+    insert(2L, 10L, 20L);
+    insert(3L, 10L);
+    index.rebuild();
+
+    assertThat(index.neighbours(1L, 5)).containsExactly(2L);
+    assertThat(index.neighbours(3L, 5)).isEmpty();
+  }
+
+  private void insert(long id, long... tagIds) {
+    jdbcTemplate.update("insert into articles values (?, ?, 'PUBLISHED', 'PUBLIC')", id, "article " + id);
+    for (long tagId : tagIds) {
+      jdbcTemplate.update("insert into article_tags values (?, ?)", id, tagId);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.guoguo.blog.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleBodyStreamerTest {
+  private JdbcTemplate jdbcTemplate;
+  private ArticleBodyStreamer streamer;
+
+  @BeforeEach
+  void setup() {
+    String url = "jdbc:h2:mem:body-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    jdbcTemplate.execute(
+        "create table articles (id bigint primary key, content clob, html_content clob, content_hash varchar(64), "
+            + "updated_at timestamp)");
+    streamer = new ArticleBodyStreamer(jdbcTemplate);
+  }
+
+  @AfterEach
+  void shutdown() {
+    jdbcTemplate.execute("shutdown");
+  }
+
+  @Test
+  void etag_is_computed_from_the_streamed_row_before_the_body() throws Exception {
+    jdbcTemplate.update(
+        "insert into articles values (1, '# v1', '<h1>v1</h1>', 'hash-v1', ?)", LocalDateTime.of(2024, 1, 1, 0, 0));
+    String checkedEtag = ArticleBodyFormat.HTML.etag("hash-v1", null);
+    // 校验 ETag 之后、输出正文之前，正文被更新
+    jdbcTemplate.update("update articles set html_content = '<h1>v2</h1>', content_hash = 'hash-v2' where id = 1");
+
+    List<String> events = new ArrayList<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    streamer.write(
+        1L,
+        ArticleBodyFormat.HTML,
+        out,
+        etag -> {
+          assertThat(out.size()).isZero();
+          events.add(etag);
+        });
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("<h1>v2</h1>");
+    assertThat(events).containsExactly("\"hash-v2-html\"").doesNotContain(checkedEtag);
+  }
+
+  @Test
+  void etag_falls_back_to_updated_at_without_content_hash() throws Exception {
+    jdbcTemplate.update("insert into articles values (1, 'plain', null, null, ?)", LocalDateTime.of(2024, 1, 1, 0, 0));
+
+    List<String> events = new ArrayList<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    streamer.write(1L, ArticleBodyFormat.MARKDOWN, out, events::add);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("plain");
+    assertThat(events).containsExactly("\"1704067200-markdown\"");
+  }
+}
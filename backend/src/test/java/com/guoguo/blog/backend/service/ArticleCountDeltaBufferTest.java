@@ -0,0 +1,98 @@
+package com.guoguo.blog.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ArticleCountDeltaBufferTest {
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final Map<String, List<Object[]>> written = new HashMap<>();
+  private final List<Object> events = new ArrayList<>();
+  private final ArticleCountDeltaBuffer buffer = new ArticleCountDeltaBuffer(jdbcTemplate, events::add);
+
+  @BeforeEach
+  void setup() {
+    doAnswer(
+            invocation -> {
+              String table = invocation.<String>getArgument(0).startsWith("update tags") ? "tags" : "categories";
+              List<Object[]> args = invocation.getArgument(1);
+              written.computeIfAbsent(table, k -> new ArrayList<>()).addAll(args);
+              return new int[args.size()];
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), anyList());
+  }
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void transitions_outside_a_transaction_are_written_and_published_at_once() {
+    buffer.recordTransition(ArticleCountDeltaBuffer.State.NONE, counted(1L, 10L, 11L));
+
+    assertThat(written.get("tags")).containsExactly(new Object[] {1, 10L}, new Object[] {1, 11L});
+    assertThat(written.get("categories")).containsExactly(new Object[] {1, 1L});
+    assertThat(events).singleElement().satisfies(event -> assertChanged(event, Set.of(10L, 11L), Set.of(1L)));
+  }
+
+  @Test
+  void transitions_in_one_transaction_are_merged_and_written_before_commit() {
+    TransactionSynchronizationManager.initSynchronization();
+    ArticleCountDeltaBuffer.State draft = counted(1L, 10L);
+    buffer.recordTransition(ArticleCountDeltaBuffer.State.NONE, draft);
+    buffer.recordTransition(draft, counted(2L, 10L, 11L));
+    assertThat(written).isEmpty();
+    assertThat(events).isEmpty();
+
+    commit();
+    assertThat(written.get("tags")).containsExactly(new Object[] {1, 10L}, new Object[] {1, 11L});
+    assertThat(written.get("categories")).containsExactly(new Object[] {1, 2L});
+    assertThat(events).singleElement().satisfies(event -> assertChanged(event, Set.of(10L, 11L), Set.of(2L)));
+  }
+
+  @Test
+  void transitions_that_cancel_out_write_nothing() {
+    TransactionSynchronizationManager.initSynchronization();
+    ArticleCountDeltaBuffer.State published = counted(1L, 10L);
+    buffer.recordTransition(ArticleCountDeltaBuffer.State.NONE, published);
+    buffer.recordTransition(published, ArticleCountDeltaBuffer.State.of(null, null, 1L, List.of(10L)));
+
+    commit();
+    assertThat(written).isEmpty();
+    assertThat(events).isEmpty();
+  }
+
+  private static void commit() {
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    synchronizations.forEach(s -> s.beforeCommit(false));
+    synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+  }
+
+  private static ArticleCountDeltaBuffer.State counted(Long categoryId, Long... tagIds) {
+    return new ArticleCountDeltaBuffer.State(true, categoryId, Set.of(tagIds));
+  }
+
+  private static void assertChanged(Object event, Set<Long> tagIds, Set<Long> categoryIds) {
+    assertThat(event).isInstanceOf(ArticleCountsChangedEvent.class);
+    assertThat(((ArticleCountsChangedEvent) event).getTagIds()).isEqualTo(tagIds);
+    assertThat(((ArticleCountsChangedEvent) event).getCategoryIds()).isEqualTo(categoryIds);
+  }
+}
@@ -0,0 +1,117 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.dto.ArticleResponse;
+import com.guoguo.blog.backend.dto.CategoryDTO;
+import com.guoguo.blog.backend.dto.TagDTO;
+import com.guoguo.blog.backend.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleDetailCacheTest {
+  private static final LocalDateTime VERSION = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final ArticleDetailCache cache = localOnly();
+
+  @Test
+  void user_change_evicts_only_that_authors_articles() {
+    cache.put(article(1L, 10L, null, List.of()));
+    cache.put(article(2L, 20L, null, List.of()));
+
+    cache.onUserChanged(new UserChangedEvent(10L));
+
+    assertThat(cache.get(1L, VERSION)).isNull();
+    assertThat(cache.get(2L, VERSION)).isNotNull();
+  }
+
+  @Test
+  void tag_and_category_changes_evict_only_articles_that_reference_those_ids() {
+    cache.put(article(1L, 10L, null, List.of()));
+    cache.put(article(2L, 10L, CategoryDTO.builder().id(5L).name("前端").build(), List.of()));
+    cache.put(article(3L, 10L, null, List.of(TagDTO.builder().id(7L).name("React").build())));
+    cache.put(article(4L, 10L, CategoryDTO.builder().id(6L).name("后端").build(), List.of()));
+    cache.put(article(5L, 10L, null, List.of(TagDTO.builder().id(8L).name("Java").build())));
+
+    cache.onCategoryChanged(new CategoryChangedEvent(Set.of(5L)));
+    assertThat(cache.get(2L, VERSION)).isNull();
+    assertThat(cache.get(4L, VERSION)).isNotNull();
+    assertThat(cache.get(3L, VERSION)).isNotNull();
+
+    cache.onTagChanged(new TagChangedEvent(7L));
+    assertThat(cache.get(3L, VERSION)).isNull();
+    assertThat(cache.get(5L, VERSION)).isNotNull();
+    assertThat(cache.get(1L, VERSION)).isNotNull();
+  }
+
+  @Test
+  void shared_entries_missing_locally_are_evicted_on_user_change() throws Exception {
+    CacheManager cacheManager = new ConcurrentMapCacheManager();
+    shared(cacheManager).put(article(1L, 10L, null, List.of()));
+    ArticleDetailCache otherNode = shared(cacheManager);
+    ResultSet row = mock(ResultSet.class);
+    when(row.getLong("id")).thenReturn(1L);
+    when(row.getObject("updated_at", LocalDateTime.class)).thenReturn(VERSION);
+    doAnswer(
+            invocation -> {
+              ((RowCallbackHandler) invocation.getArgument(1)).processRow(row);
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(RowCallbackHandler.class), eq(10L));
+
+    otherNode.onUserChanged(new UserChangedEvent(10L));
+
+    assertThat(shared(cacheManager).get(1L, VERSION)).isNull();
+  }
+
+  @Test
+  void shared_entries_missing_locally_are_evicted_on_tag_change() {
+    CacheManager cacheManager = new ConcurrentMapCacheManager();
+    shared(cacheManager).put(article(3L, 10L, null, List.of(TagDTO.builder().id(7L).name("React").build())));
+
+    shared(cacheManager).onTagChanged(new TagChangedEvent(7L));
+
+    assertThat(shared(cacheManager).get(3L, VERSION)).isNull();
+  }
+
+  @SuppressWarnings("unchecked")
+  private ArticleDetailCache localOnly() {
+    return new ArticleDetailCache(
+        new SimpleMeterRegistry(), jdbcTemplate, mock(ObjectProvider.class), 100, Duration.ofMinutes(10), false);
+  }
+
+  @SuppressWarnings("unchecked")
+  private ArticleDetailCache shared(CacheManager cacheManager) {
+    ObjectProvider<CacheManager> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable()).thenReturn(cacheManager);
+    return new ArticleDetailCache(new SimpleMeterRegistry(), jdbcTemplate, provider, 100, Duration.ofMinutes(10), true);
+  }
+
+  private static ArticleResponse article(Long id, Long authorId, CategoryDTO category, List<TagDTO> tags) {
+    return ArticleResponse.builder()
+        .id(id)
+        .author(UserDTO.builder().id(authorId).build())
+        .category(category)
+        .tags(tags)
+        .updatedAt(VERSION)
+        .build();
+  }
+}
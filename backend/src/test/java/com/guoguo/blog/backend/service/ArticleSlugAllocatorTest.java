@@ -0,0 +1,67 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.exception.BusinessException;
+import com.guoguo.blog.backend.repository.ArticleRepository;
+import com.guoguo.blog.backend.repository.ArticleSlugView;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleSlugAllocatorTest {
+  private final ArticleRepository articleRepository = mock(ArticleRepository.class);
+  private final ArticleSlugAllocator allocator =
+      new ArticleSlugAllocator(articleRepository, mock(JdbcTemplate.class), 1000L, 0.01d, 1000);
+
+  @Test
+  void takes_the_smallest_free_suffix_and_keeps_the_articles_own_slug() {
+    when(articleRepository.findSlugFamily("hello"))
+        .thenReturn(List.of(row(1L, "hello"), row(2L, "hello-1"), row(3L, "hello-3"), row(4L, "hello-world"), row(5L, "hello-01")));
+
+    assertThat(allocator.allocate(null, "hello")).isEqualTo("hello-2");
+    assertThat(allocator.allocate(3L, "hello")).isEqualTo("hello-3");
+    assertThat(allocator.allocate(4L, "hello")).isEqualTo("hello-2");
+  }
+
+  @Test
+  void huge_suffixes_are_ignored_instead_of_sizing_the_bitmap() {
+    when(articleRepository.findSlugFamily("hello"))
+        .thenReturn(
+            List.of(
+                row(1L, "hello"),
+                row(2L, "hello-999999999"),
+                row(3L, "hello-99999999"),
+                row(4L, "hello-99999999999999999999"),
+                row(5L, "hello-1001")));
+
+    assertThat(allocator.allocate(null, "hello")).isEqualTo("hello-1");
+    assertThat(allocator.allocate(2L, "hello")).isEqualTo("hello-999999999");
+    assertThat(allocator.allocate(4L, "hello")).isEqualTo("hello-99999999999999999999");
+  }
+
+  @Test
+  void fails_when_every_suffix_up_to_the_limit_is_taken() {
+    ArticleSlugAllocator small = new ArticleSlugAllocator(articleRepository, mock(JdbcTemplate.class), 1000L, 0.01d, 2);
+    when(articleRepository.findSlugFamily("a")).thenReturn(List.of(row(1L, "a"), row(2L, "a-1"), row(3L, "a-2")));
+
+    assertThatThrownBy(() -> small.allocate(null, "a")).isInstanceOf(BusinessException.class);
+  }
+
+  private static ArticleSlugView row(Long id, String slug) {
+    return new ArticleSlugView() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public String getSlug() {
+        return slug;
+      }
+    };
+  }
+}
@@ -0,0 +1,112 @@
+package com.guoguo.blog.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleViewCounterTest {
+
+  @Test
+  void flush_writes_pending_deltas_once() {
+    AtomicLong written = new AtomicLong();
+    ArticleViewCounter counter = new ArticleViewCounter(recordingJdbc(written), new SimpleMeterRegistry(), 2, 100);
+    for (long id = 1; id <= 5; id++) {
+      for (int i = 0; i < id; i++) {
+        counter.increment(id);
+      }
+    }
+    assertThat(counter.pendingTotal()).isEqualTo(15L);
+
+    counter.flush();
+    counter.flush();
+    assertThat(written).hasValue(15L);
+    assertThat(counter.pendingTotal()).isZero();
+    assertThat(counter.pendingDelta(3L)).isZero();
+  }
+
+  @Test
+  void failed_writes_keep_their_deltas_for_the_next_flush() {
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ArticleViewCounter counter = new ArticleViewCounter(jdbcTemplate, registry, 500, 100);
+    counter.increment(1L);
+    counter.increment(1L);
+
+    counter.flush();
+    assertThat(counter.pendingDelta(1L)).isEqualTo(2L);
+    assertThat(registry.get("blog.article.views.flush.failures").counter().count()).isEqualTo(1d);
+
+    AtomicLong written = new AtomicLong();
+    doAnswer(
+            invocation -> {
+              List<Object[]> args = invocation.getArgument(1);
+              written.addAndGet((Long) args.get(0)[0]);
+              return new int[args.size()];
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), anyList());
+    counter.flush();
+    assertThat(written).hasValue(2L);
+    assertThat(counter.pendingDelta(1L)).isZero();
+  }
+
+  @Test
+  void views_are_not_lost_when_idle_entries_are_evicted_concurrently() throws Exception {
+    AtomicLong written = new AtomicLong();
+    // 上限为 1：每轮写回后都会清理计数为 0 的条目，与并发累加交错
+    ArticleViewCounter counter = new ArticleViewCounter(recordingJdbc(written), new SimpleMeterRegistry(), 500, 1);
+    AtomicBoolean running = new AtomicBoolean(true);
+    CompletableFuture<Void> flusher =
+        CompletableFuture.runAsync(
+            () -> {
+              while (running.get()) {
+                counter.flush();
+              }
+            });
+    List<CompletableFuture<Void>> writers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      writers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                for (int i = 0; i < 50_000; i++) {
+                  counter.increment((long) (i % 8));
+                }
+              }));
+    }
+    CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).join();
+    running.set(false);
+    flusher.join();
+    counter.flush();
+
+    assertThat(written.get()).isEqualTo(200_000L);
+    assertThat(counter.pendingTotal()).isZero();
+  }
+
+  private static JdbcTemplate recordingJdbc(AtomicLong written) {
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Object[]> args = invocation.getArgument(1);
+              for (Object[] row : args) {
+                written.addAndGet((Long) row[0]);
+              }
+              return new int[args.size()];
+            });
+    return jdbcTemplate;
+  }
+}
@@ -0,0 +1,123 @@
+package com.guoguo.blog.backend.service;
+
+import com.guoguo.blog.backend.dto.ArticleViewRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadHistoryIngestorTest {
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void pings_for_the_same_reader_are_coalesced_into_one_upsert() {
+    List<Object[]> written = recordBatches();
+    ReadHistoryIngestor ingestor = new ReadHistoryIngestor(jdbcTemplate, registry, 500, 100);
+
+    ingestor.record(7L, 1L, ping("10", 100, 30));
+    ingestor.record(7L, 1L, ping("40", null, 90));
+    ingestor.record(7L, 1L, ping("35", 350, 60));
+    ingestor.record(8L, 1L, null);
+    assertThat(ingestor.pendingSize()).isEqualTo(2);
+
+    ingestor.flush();
+    assertThat(ingestor.pendingSize()).isZero();
+    assertThat(written).hasSize(2);
+    Object[] row = written.stream().filter(args -> Long.valueOf(7L).equals(args[1])).findFirst().orElseThrow();
+    assertThat(row[0]).isEqualTo(1L);
+    assertThat((BigDecimal) row[2]).isEqualByComparingTo("35");
+    assertThat(row[3]).isEqualTo(350);
+    assertThat(row[4]).isEqualTo(90);
+    assertThat(registry.get("blog.article.read-history.coalesced").counter().count()).isEqualTo(2d);
+  }
+
+  @Test
+  void new_readers_are_dropped_when_the_pending_table_is_full() {
+    recordBatches();
+    ReadHistoryIngestor ingestor = new ReadHistoryIngestor(jdbcTemplate, registry, 500, 1);
+
+    ingestor.record(7L, 1L, ping("10", null, null));
+    ingestor.record(8L, 1L, ping("20", null, null));
+    ingestor.record(7L, 1L, ping("30", null, null));
+
+    assertThat(ingestor.pendingSize()).isEqualTo(1);
+    assertThat(registry.get("blog.article.read-history.dropped").counter().count()).isEqualTo(1d);
+  }
+
+  @Test
+  void rows_violating_constraints_are_dropped_after_a_failed_batch() {
+    when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("batch"));
+    when(jdbcTemplate.update(anyString(), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              // 可变参数按展开后的位置传入：sql, article_id, user_id, ...
+              if (Long.valueOf(7L).equals(invocation.getArgument(2))) {
+                throw new DataIntegrityViolationException("user deleted");
+              }
+              return 1;
+            });
+    ReadHistoryIngestor ingestor = new ReadHistoryIngestor(jdbcTemplate, registry, 500, 100);
+    ingestor.record(7L, 1L, ping("10", null, null));
+    ingestor.record(8L, 1L, ping("20", null, null));
+
+    ingestor.flush();
+    assertThat(ingestor.pendingSize()).isZero();
+    assertThat(registry.get("blog.article.read-history.flushed").counter().count()).isEqualTo(1d);
+    assertThat(registry.get("blog.article.read-history.flush.failures").counter().count()).isEqualTo(1d);
+  }
+
+  @Test
+  void rows_are_requeued_and_merged_with_newer_pings_when_the_database_is_down() {
+    when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("batch"));
+    when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("down"));
+    ReadHistoryIngestor ingestor = new ReadHistoryIngestor(jdbcTemplate, registry, 500, 100);
+    ingestor.record(7L, 1L, ping("10", 100, null));
+    ingestor.record(8L, 1L, ping("20", null, null));
+
+    ingestor.flush();
+    assertThat(ingestor.pendingSize()).isEqualTo(2);
+
+    ingestor.record(7L, 1L, ping("50", null, null));
+    List<Object[]> written = recordBatches();
+    ingestor.flush();
+    assertThat(written).hasSize(2);
+    Object[] row = written.stream().filter(args -> Long.valueOf(7L).equals(args[1])).findFirst().orElseThrow();
+    assertThat((BigDecimal) row[2]).isEqualByComparingTo("50");
+    assertThat(row[3]).isEqualTo(100);
+    assertThat(ingestor.pendingSize()).isZero();
+  }
+
+  private List<Object[]> recordBatches() {
+    List<Object[]> written = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              List<Object[]> args = invocation.getArgument(1);
+              written.addAll(args);
+              return new int[args.size()];
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), anyList());
+    return written;
+  }
+
+  private static ArticleViewRequest ping(String progress, Integer lastPosition, Integer readDuration) {
+    return ArticleViewRequest.builder()
+        .progress(new BigDecimal(progress))
+        .lastPosition(lastPosition)
+        .readDuration(readDuration)
+        .build();
+  }
+}
@@ -0,0 +1,60 @@
+package com.guoguo.blog.backend.service;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingEngineTest {
+
+  @Test
+  void interactions_are_weighted_when_ranking() {
+    TrendingEngine engine = engine(100);
+    for (int i = 0; i < 3; i++) {
+      engine.recordView(1L);
+    }
+    engine.recordLike(2L, true);
+    engine.recordCollect(3L, true);
+
+    assertThat(engine.topArticleIds(3)).containsExactly(3L, 2L, 1L);
+    assertThat(engine.topArticleIds(2)).containsExactly(3L, 2L);
+  }
+
+  @Test
+  void withdrawn_interactions_cancel_out_and_never_create_entries() {
+    TrendingEngine engine = engine(100);
+    engine.recordView(1L);
+    engine.recordLike(2L, true);
+    engine.recordLike(2L, false);
+    engine.recordCollect(3L, false);
+
+    assertThat(engine.topArticleIds(5)).containsExactly(1L);
+    assertThat(engine.trackedArticles()).isEqualTo(2);
+  }
+
+  @Test
+  void new_articles_are_ignored_beyond_the_tracking_limit() {
+    TrendingEngine engine = engine(1);
+    engine.recordView(1L);
+    engine.recordLike(2L, true);
+    engine.recordView(1L);
+
+    assertThat(engine.trackedArticles()).isEqualTo(1);
+    assertThat(engine.topArticleIds(5)).containsExactly(1L);
+  }
+
+  @Test
+  void committed_interaction_events_are_recorded() {
+    TrendingEngine engine = engine(100);
+    engine.recordView(1L);
+    engine.onInteractionChanged(ArticleInteractionChangedEvent.like(2L, true));
+    engine.onInteractionChanged(ArticleInteractionChangedEvent.collect(3L, true));
+    engine.onInteractionChanged(ArticleInteractionChangedEvent.collect(3L, false));
+
+    assertThat(engine.topArticleIds(5)).containsExactly(2L, 1L);
+  }
+
+  private static TrendingEngine engine(int maxTrackedArticles) {
+    return new TrendingEngine(Duration.ofHours(1), Duration.ofHours(72), Duration.ofHours(24), maxTrackedArticles, 1, 5, 8);
+  }
+}
@@ -0,0 +1,88 @@
+package com.guoguo.blog.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarkdownBlockRendererTest {
+  private static final String[] FRAGMENTS = {
+    "# 标题 Title",
+    "## 小节",
+    "### Section three",
+    "段落，包含 *强调* 和 **加粗** 以及 `inline code`。",
+    "Plain paragraph with a https://example.com autolink\nand a soft break.",
+    "Line with hard break  \nnext line",
+    "- item one\n- item two\n- item three",
+    "- loose one\n\n- loose two",
+    "1. first\n2. second\n\n   continued paragraph",
+    "* parent\n    * child\n\n    child paragraph",
+    "```java\nint a = 1;\n\nint b = 2;\n```",
+    "~~~\ncode with ``` inside\n\n~~~",
+    "    indented code\n\n    more indented",
+    "> quote line\n> second line",
+    "| a | b |\n| - | - |\n| 1 | 2 |",
+    "---",
+    "***",
+    "Setext heading\n==============",
+    "~~删除线~~ and text",
+    "中文段落没有空格也没有标点符号",
+  };
+
+  @Test
+  void block_render_matches_full_render_for_random_documents() {
+    Random random = new Random(20240601L);
+    MarkdownBlockRenderer renderer = new MarkdownBlockRenderer(1_000_000L, 0);
+    for (int run = 0; run < 500; run++) {
+      List<String> parts = randomParts(random);
+      assertSameAsFullRender(renderer, join(parts, random));
+
+      parts.set(random.nextInt(parts.size()), FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      assertSameAsFullRender(renderer, join(parts, random));
+    }
+  }
+
+  @Test
+  void falls_back_for_document_scoped_constructs() {
+    MarkdownBlockRenderer renderer = new MarkdownBlockRenderer(1_000_000L, 0);
+    assertSameAsFullRender(renderer, "See [docs][ref].\n\n[ref]: https://example.com\n");
+    assertSameAsFullRender(renderer, "# Same\n\ntext\n\n# Same\n");
+    assertSameAsFullRender(renderer, "<pre>\nkeep\n\nblank\n</pre>\n\nafter\n");
+  }
+
+  @Test
+  void split_keeps_fenced_code_and_continuations_together() {
+    assertThat(MarkdownBlockRenderer.split("a\n\n```\nx\n\ny\n```\n\nb\n"))
+        .containsExactly("a\n\n", "```\nx\n\ny\n```\n\n", "b\n");
+    assertThat(MarkdownBlockRenderer.split("- a\n\n- b\n\n  more\n\nend")).containsExactly("- a\n\n- b\n\n  more\n\n", "end");
+  }
+
+  private static void assertSameAsFullRender(MarkdownBlockRenderer renderer, String markdown) {
+    RenderedMarkdown expected = MarkdownUtil.render(markdown, 120);
+    RenderedMarkdown actual = renderer.render(markdown, 120);
+    assertThat(actual.getHtml()).as(markdown).isEqualTo(MarkdownUtil.toHtml(markdown));
+    assertThat(actual.getSummary()).as(markdown).isEqualTo(expected.getSummary());
+    assertThat(actual.getWordCount()).as(markdown).isEqualTo(expected.getWordCount());
+    assertThat(actual.getToc()).as(markdown).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected.getToc());
+  }
+
+  private static List<String> randomParts(Random random) {
+    int count = 1 + random.nextInt(12);
+    List<String> parts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      parts.add(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+    }
+    return parts;
+  }
+
+  private static String join(List<String> parts, Random random) {
+    StringBuilder markdown = new StringBuilder();
+    for (String part : parts) {
+      markdown.append(part).append('\n');
+      markdown.append("\n".repeat(random.nextInt(3)));
+    }
+    return markdown.toString();
+  }
+}
@@ -0,0 +1,73 @@
+package com.guoguo.blog.backend.util;
+
+import java.text.BreakIterator;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarkdownSummaryExtractorTest {
+
+  @Test
+  void skips_code_blocks_and_markup() {
+    String markdown =
+        "# 入门 Guide #\n\n"
+            + "第一段 **hello** _world_ 见 [文档](https://example.com/a_(b)) 和 ![图](x.png)\n\n"
+            + "```java\nint a = 1;\n\n// 代码\n```\n\n"
+            + "~~~\n```\n~~~\n\n"
+            + "    indented code\n\n"
+            + "> - [x] 引用里的 `snake_case` 任务\n\n"
+            + "| a | b |\n| :- | -: |\n| 1 | 2 |\n\n"
+            + "---\n\n"
+            + "Setext\n======\n\n"
+            + "1. 第一 <br/> <https://example.com> 3 < 4\n"
+            + "   续行\\*星号\\*";
+    assertThat(MarkdownUtil.extractSummary(markdown, 500))
+        .isEqualTo(
+            "入门 Guide 第一段 hello world 见 文档 和 图 引用里的 snake_case 任务 a b 1 2 Setext "
+                + "第一 https://example.com 3 < 4 续行*星号*");
+  }
+
+  @Test
+  void list_continuations_are_text_not_code() {
+    assertThat(MarkdownUtil.extractSummary("* parent\n    * child\n\n    child paragraph", 120))
+        .isEqualTo("parent child child paragraph");
+  }
+
+  @Test
+  void truncates_on_grapheme_boundaries() {
+    String emoji = "\uD83D\uDE00";
+    String accent = "e\u0301";
+    for (int length = 1; length < 40; length++) {
+      String summary = MarkdownUtil.extractSummary("**" + emoji.repeat(30) + "**", length);
+      assertThat(summary.length()).isLessThanOrEqualTo(length).isEven();
+      assertThat(MarkdownUtil.extractSummary("# " + accent.repeat(30), length)).satisfies(s -> assertWholeGraphemes(s));
+      assertThat(MarkdownUtil.extractSummary("a" + emoji.repeat(30), length)).satisfies(s -> assertWholeGraphemes(s));
+    }
+    assertThat(MarkdownUtil.extractSummary("ab" + emoji, 3)).isEqualTo("ab");
+  }
+
+  @Test
+  void large_documents_only_need_their_opening() {
+    String head = "开头段落 " + "字".repeat(200);
+    String markdown = head + "\n\n" + "```\n" + "x\n".repeat(500_000);
+    assertThat(MarkdownUtil.extractSummary(markdown, 120)).isEqualTo(head.substring(0, 120));
+    assertThat(MarkdownUtil.extractSummary("", 120)).isEmpty();
+    assertThat(MarkdownUtil.extractSummary("正文", 0)).isEmpty();
+  }
+
+  @Test
+  void brackets_and_fence_backticks_are_matched_within_the_line() {
+    // 后续行中的 > 与反引号不影响本行：< 按普通字符输出，围栏照常开启
+    String filler = "x\n".repeat(100_000);
+    assertThat(MarkdownUtil.extractSummary("1 < 2\n\n" + filler + "<b>", 5)).isEqualTo("1 < 2");
+    assertThat(MarkdownUtil.extractSummary("```js\ncode `x`\n```\n\n正文\n" + filler + "`", 10)).isEqualTo("正文 x x x x");
+  }
+
+  private static void assertWholeGraphemes(String summary) {
+    BreakIterator graphemes = BreakIterator.getCharacterInstance(Locale.ROOT);
+    graphemes.setText(summary);
+    assertThat(graphemes.last()).isEqualTo(summary.length());
+    assertThat(summary).doesNotEndWith("e");
+  }
+}
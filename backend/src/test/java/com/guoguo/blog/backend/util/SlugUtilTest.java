@@ -0,0 +1,45 @@
+package com.guoguo.blog.backend.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlugUtilTest {
+  private static final String ALPHABET = "aZ09 -\t_,.!?'\"()café ÀÉÎõüñ ﬁ Ｆｕｌｌ ①²  ";
+
+  @Test
+  void matches_previous_implementation_for_non_cjk_input() {
+    Random random = new Random(20240501L);
+    for (int i = 0; i < 5_000; i++) {
+      StringBuilder input = new StringBuilder();
+      int length = random.nextInt(30);
+      for (int j = 0; j < length; j++) {
+        input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      assertThat(SlugUtil.toSlug(input.toString())).as("input=[%s]", input).isEqualTo(legacy(input.toString()));
+    }
+  }
+
+  @Test
+  void transliterates_chinese_to_pinyin() {
+    assertThat(SlugUtil.toSlug("你好，世界")).isEqualTo("ni-hao-shi-jie");
+    assertThat(SlugUtil.toSlug("Spring Boot 入门指南")).isEqualTo("spring-boot-ru-men-zhi-nan");
+    assertThat(SlugUtil.toSlug("Vue3源码")).isEqualTo("vue3-yuan-ma");
+    assertThat(SlugUtil.toSlug("女")).isEqualTo("nv");
+    assertThat(SlugUtil.toSlug("！？")).isEqualTo("article");
+  }
+
+  private static String legacy(String input) {
+    String slug =
+        Normalizer.normalize(input, Normalizer.Form.NFKD)
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("[^a-z0-9\\s-]", "")
+            .trim()
+            .replaceAll("\\s+", "-")
+            .replaceAll("-{2,}", "-");
+    return slug.isBlank() ? "article" : slug;
+  }
+}
@@ -0,0 +1,88 @@
+package com.guoguo.blog.backend.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBulkheadFilterTest {
+
+  @Test
+  void rejects_api_requests_beyond_the_limit_and_releases_permits() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    RequestBulkheadFilter filter = new RequestBulkheadFilter(registry, 1, Duration.ofMillis(50));
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                filter.doFilter(
+                    new MockHttpServletRequest("GET", "/api/articles"),
+                    new MockHttpServletResponse(),
+                    (req, res) -> {
+                      entered.countDown();
+                      try {
+                        release.await(5, TimeUnit.SECONDS);
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                      }
+                    });
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(filter.inFlight()).isEqualTo(1);
+
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), rejected, new MockFilterChain());
+    assertThat(rejected.getStatus()).isEqualTo(503);
+    assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(rejected.getContentAsString()).contains("SERVICE_BUSY");
+    assertThat(registry.get("blog.http.bulkhead.rejected").counter().count()).isEqualTo(1d);
+
+    MockHttpServletResponse other = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/swagger-ui.html"), other, new MockFilterChain());
+    assertThat(other.getStatus()).isEqualTo(200);
+
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    assertThat(filter.inFlight()).isZero();
+    MockHttpServletResponse accepted = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), accepted, new MockFilterChain());
+    assertThat(accepted.getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void async_requests_hold_the_permit_until_completion() throws Exception {
+    RequestBulkheadFilter filter = new RequestBulkheadFilter(new SimpleMeterRegistry(), 1, Duration.ZERO);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles/1/body");
+    request.setAsyncSupported(true);
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+    assertThat(filter.inFlight()).isEqualTo(1);
+
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), rejected, new MockFilterChain());
+    assertThat(rejected.getStatus()).isEqualTo(503);
+
+    request.getAsyncContext().complete();
+    assertThat(filter.inFlight()).isZero();
+  }
+
+  @Test
+  void zero_limit_disables_the_bulkhead() throws Exception {
+    RequestBulkheadFilter filter = new RequestBulkheadFilter(new SimpleMeterRegistry(), 0, Duration.ZERO);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), response, new MockFilterChain());
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+}
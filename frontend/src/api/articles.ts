@@ -1,4 +1,5 @@
 import type {
+  ArticleInteractionResponse,
   ArticleListItem,
   ArticleRequest,
   ArticleResponse,
@@ -18,20 +19,25 @@ export const articleApi = {
     tagId?: number;
     userId?: number;
     keyword?: string;
+    cursor?: string;
   }): Promise<PageResponse<ArticleListItem>> {
     return apiGet<PageResponse<ArticleListItem>>("/api/articles", { params });
   },
 
-  async detail(id: number): Promise<ArticleResponse> {
-    return apiGet<ArticleResponse>(`/api/articles/${id}`);
+  async detail(id: number, params?: { includeBody?: boolean }): Promise<ArticleResponse> {
+    return apiGet<ArticleResponse>(`/api/articles/${id}`, { params });
   },
 
-  async create(payload: ArticleRequest): Promise<ArticleResponse> {
-    return apiPost<ArticleResponse>("/api/articles", payload);
+  async body(id: number, format: "html" | "markdown" = "html"): Promise<string> {
+    return apiGet<string>(`/api/articles/${id}/body`, { params: { format }, responseType: "text" });
   },
 
-  async update(id: number, payload: ArticleRequest): Promise<ArticleResponse> {
-    return apiPut<ArticleResponse>(`/api/articles/${id}`, payload);
+  async create(payload: ArticleRequest, params?: { fields?: string }): Promise<ArticleResponse> {
+    return apiPost<ArticleResponse>("/api/articles", payload, { params });
+  },
+
+  async update(id: number, payload: ArticleRequest, params?: { fields?: string }): Promise<ArticleResponse> {
+    return apiPut<ArticleResponse>(`/api/articles/${id}`, payload, { params });
   },
 
   async remove(id: number): Promise<void> {
@@ -54,12 +60,12 @@ export const articleApi = {
     return apiGet<ArticleListItem[]>(`/api/articles/${id}/related`, { params });
   },
 
-  async like(id: number): Promise<ArticleResponse> {
-    return apiPost<ArticleResponse>(`/api/articles/${id}/like`);
+  async like(id: number): Promise<ArticleInteractionResponse> {
+    return apiPost<ArticleInteractionResponse>(`/api/articles/${id}/like`);
   },
 
-  async collect(id: number): Promise<ArticleResponse> {
-    return apiPost<ArticleResponse>(`/api/articles/${id}/collect`);
+  async collect(id: number): Promise<ArticleInteractionResponse> {
+    return apiPost<ArticleInteractionResponse>(`/api/articles/${id}/collect`);
   },
 
   async view(id: number, payload?: ArticleViewRequest): Promise<void> {
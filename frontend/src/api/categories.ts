@@ -10,7 +10,10 @@ export const categoryApi = {
     return apiGet<CategoryDTO>(`/api/categories/${id}`);
   },
 
-  async articles(id: number, params?: { page?: number; size?: number }): Promise<PageResponse<ArticleListItem>> {
+  async articles(
+    id: number,
+    params?: { page?: number; size?: number; sortBy?: string; order?: string; cursor?: string }
+  ): Promise<PageResponse<ArticleListItem>> {
     return apiGet<PageResponse<ArticleListItem>>(`/api/categories/${id}/articles`, { params });
   },
 };
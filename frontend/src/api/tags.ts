@@ -14,7 +14,10 @@ export const tagApi = {
     return apiGet<TagDTO[]>("/api/tags/popular");
   },
 
-  async articles(id: number, params?: { page?: number; size?: number }): Promise<PageResponse<ArticleListItem>> {
+  async articles(
+    id: number,
+    params?: { page?: number; size?: number; sortBy?: string; order?: string; cursor?: string }
+  ): Promise<PageResponse<ArticleListItem>> {
     return apiGet<PageResponse<ArticleListItem>>(`/api/tags/${id}/articles`, { params });
   },
 };
@@ -38,10 +38,11 @@ export interface LoginRequest {
 }
 
 export interface PageResponse<T> {
-  page: number;
+  page?: number;
   size: number;
-  total: number;
+  total?: number;
   list: T[];
+  nextCursor?: string;
 }
 
 export type CheckinMethod = "WEB" | "MOBILE" | "SHAKE" | "WIDGET" | "API";
@@ -149,6 +150,13 @@ export interface ArticleListItem {
   commentCount: number;
   publishedAt?: string;
   createdAt?: string;
+  highlight?: string;
+}
+
+export interface TocItem {
+  level: number;
+  text: string;
+  anchor: string;
 }
 
 export interface ArticleResponse {
@@ -157,8 +165,10 @@ export interface ArticleResponse {
   slug: string;
   coverImage?: string;
   summary?: string;
-  content: string;
+  content?: string;
   htmlContent?: string;
+  toc?: TocItem[];
+  wordCount?: number;
   status: ArticleStatus;
   visibility: ArticleVisibility;
   category?: CategoryDTO;
@@ -175,6 +185,14 @@ export interface ArticleResponse {
   collected?: boolean;
 }
 
+export interface ArticleInteractionResponse {
+  id: number;
+  likeCount: number;
+  collectCount: number;
+  liked: boolean;
+  collected: boolean;
+}
+
 export interface ArticleRequest {
   title: string;
   slug?: string;
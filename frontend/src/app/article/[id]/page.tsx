@@ -19,6 +19,7 @@ export default function ArticlePage() {
   const id = Number(params?.id);
   const { checkAuth } = useAuth();
   const [article, setArticle] = useState<ArticleResponse | null>(null);
+  const [bodyHtml, setBodyHtml] = useState("");
   const [loading, setLoading] = useState(false);
 
   useEffect(() => {
@@ -28,6 +29,7 @@ export default function ArticlePage() {
       .detail(id)
       .then((a) => {
         setArticle(a);
+        articleApi.body(id).then(setBodyHtml).catch(() => {});
         articleApi.view(id).catch(() => {});
       })
       .finally(() => setLoading(false));
@@ -88,7 +90,7 @@ export default function ArticlePage() {
 
             <article
               className="prose prose-lg prose-slate dark:prose-invert max-w-none"
-              dangerouslySetInnerHTML={{ __html: article.htmlContent || "" }}
+              dangerouslySetInnerHTML={{ __html: bodyHtml }}
             />
 
             <div className="mt-12 pt-8 border-t border-slate-100 dark:border-slate-800">
@@ -135,7 +137,7 @@ export default function ArticlePage() {
                 onClick={() => {
                   checkAuth(async () => {
                     const updated = await articleApi.like(article.id);
-                    setArticle(updated);
+                    setArticle((prev) => (prev ? { ...prev, ...updated } : prev));
                   });
                 }}
               >
@@ -146,7 +148,7 @@ export default function ArticlePage() {
                 onClick={() => {
                   checkAuth(async () => {
                     const updated = await articleApi.collect(article.id);
-                    setArticle(updated);
+                    setArticle((prev) => (prev ? { ...prev, ...updated } : prev));
                   });
                 }}
               >
@@ -165,7 +167,7 @@ export default function ArticlePage() {
           onClick={() => {
             checkAuth(async () => {
               const updated = await articleApi.like(article.id);
-              setArticle(updated);
+              setArticle((prev) => (prev ? { ...prev, ...updated } : prev));
             });
           }}
         >
@@ -181,7 +183,7 @@ export default function ArticlePage() {
           onClick={() => {
             checkAuth(async () => {
               const updated = await articleApi.collect(article.id);
-              setArticle(updated);
+              setArticle((prev) => (prev ? { ...prev, ...updated } : prev));
             });
           }}
         >
@@ -46,10 +46,10 @@ export default function PublishClient() {
     checkAuth(() => {
       setLoading(true);
       articleApi
-        .detail(articleId)
+        .detail(articleId, { includeBody: true })
         .then((a) => {
           setTitle(a.title);
-          setContent(a.content);
+          setContent(a.content || "");
           setSummary(a.summary || "");
           setCoverImage(a.coverImage || "");
           setVisibility(a.visibility);
@@ -74,7 +74,9 @@ export default function PublishClient() {
       };
       setLoading(true);
       try {
-        const res = articleId ? await articleApi.update(articleId, payload) : await articleApi.create(payload);
+        const res = articleId
+          ? await articleApi.update(articleId, payload, { fields: "id" })
+          : await articleApi.create(payload, { fields: "id" });
         router.replace(`/publish?id=${res.id}`);
       } finally {
         setLoading(false);
@@ -96,7 +98,9 @@ export default function PublishClient() {
       };
       setLoading(true);
       try {
-        const res = articleId ? await articleApi.update(articleId, payload) : await articleApi.create(payload);
+        const res = articleId
+          ? await articleApi.update(articleId, payload, { fields: "id" })
+          : await articleApi.create(payload, { fields: "id" });
         router.push(`/article/${res.id}`);
       } finally {
         setLoading(false);